@@ -0,0 +1,64 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.seazzle.CopyOptions;
+import org.seazzle.CopyService;
+import org.seazzle.CopyTraversal;
+import org.seazzle.benchmark.model.Graphs;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies many small independent aggregates, one {@link CopyService#copy} call per root or through
+ * {@link CopyService#copyAll}, which reuses one session and its work queue for all roots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchCopyBenchmark {
+
+    @Param({"10000"})
+    private int roots;
+
+    @Param({"10"})
+    private int nodes;
+
+    @Param({"RECURSIVE", "DEPTH_FIRST"})
+    private CopyTraversal traversal;
+
+    private List<ParentEntity> aggregates;
+    private CopyOptions options;
+
+    @Setup
+    public void setUp() {
+        aggregates = new ArrayList<>(roots);
+        for (int i = 0; i < roots; i++) {
+            aggregates.add(Graphs.wide(nodes));
+        }
+        options = CopyOptions.builder().traversal(traversal).build();
+    }
+
+    @Benchmark
+    public void copyEach(Blackhole blackhole) {
+        for (ParentEntity aggregate : aggregates) {
+            blackhole.consume(CopyService.copy(aggregate, options));
+        }
+    }
+
+    @Benchmark
+    public void copyAll(Blackhole blackhole) {
+        CopyService.copyAll(aggregates, options).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long copyAllInChunks(Blackhole blackhole) {
+        return CopyService.copyAll(aggregates, options, 500, blackhole::consume);
+    }
+}
@@ -0,0 +1,73 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.seazzle.CopyEngine;
+import org.seazzle.CopyOptions;
+import org.seazzle.benchmark.model.Graphs;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies small aggregates from many concurrent tasks through one shared {@link CopyEngine}, like request handlers
+ * would, on a pool of platform threads or on one virtual thread per task (JDK 21 or later).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentCopyBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threads;
+
+    @Param({"10000"})
+    private int tasks;
+
+    @Param({"10"})
+    private int nodes;
+
+    private ParentEntity aggregate;
+    private CopyEngine engine;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        aggregate = Graphs.wide(nodes);
+        engine = CopyEngine.of(CopyOptions.defaults());
+        if (threads.equals("VIRTUAL")) {
+            try {
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Virtual threads need JDK 21 or later, run with -p threads=PLATFORM", e);
+            }
+        } else {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int copy() throws Exception {
+        List<Future<ParentEntity>> copies = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            copies.add(executor.submit(() -> engine.copy(aggregate)));
+        }
+        int children = 0;
+        for (Future<ParentEntity> copy : copies) {
+            children += copy.get().getChildren().size();
+        }
+        return children;
+    }
+}
@@ -0,0 +1,74 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.seazzle.FieldAccessor;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copying the fields of one small entity through {@link Field#get}/{@link Field#set} with the
+ * {@link FieldAccessor} used by the copy plan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldAccessBenchmark {
+
+    private static final String[] FIELD_NAMES = {"intField", "boolField", "longField", "stringField"};
+
+    private final Sample source = new Sample();
+    private final Sample target = new Sample();
+    private Field[] fields;
+    private FieldAccessor[] accessors;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        source.intField = 7;
+        source.boolField = true;
+        source.longField = 42L;
+        source.stringField = "value";
+
+        fields = new Field[FIELD_NAMES.length];
+        accessors = new FieldAccessor[FIELD_NAMES.length];
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            fields[i] = Sample.class.getDeclaredField(FIELD_NAMES[i]);
+            fields[i].setAccessible(true);
+            accessors[i] = FieldAccessor.of(fields[i]);
+        }
+    }
+
+    @Benchmark
+    public Sample reflectiveGetSet() throws IllegalAccessException {
+        for (Field field : fields) {
+            field.set(target, field.get(source));
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Sample accessorGetSet() {
+        for (FieldAccessor accessor : accessors) {
+            accessor.set(target, accessor.get(source));
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Sample accessorCopy() {
+        for (FieldAccessor accessor : accessors) {
+            accessor.copy(source, target);
+        }
+        return target;
+    }
+
+    public static class Sample {
+        private int intField;
+        private boolean boolField;
+        private long longField;
+        private String stringField;
+    }
+}
@@ -0,0 +1,58 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.seazzle.CopyOptions;
+import org.seazzle.CopyService;
+import org.seazzle.CopyTraversal;
+import org.seazzle.benchmark.model.Graphs;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies detached graphs of different shapes and sizes. Deep chains are copied with
+ * {@link CopyTraversal#DEPTH_FIRST}, the recursive copy overflows the stack long before a million nodes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class GraphShapeBenchmark {
+
+    public enum Shape {
+        WIDE, DEEP, MAP_HEAVY
+    }
+
+    @Param({"WIDE", "DEEP", "MAP_HEAVY"})
+    private Shape shape;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int nodes;
+
+    private ParentEntity root;
+    private CopyOptions options;
+
+    @Setup
+    public void setUp() {
+        switch (shape) {
+            case WIDE:
+                root = Graphs.wide(nodes);
+                options = CopyOptions.defaults();
+                break;
+            case DEEP:
+                root = Graphs.deep(nodes);
+                options = CopyOptions.builder().traversal(CopyTraversal.DEPTH_FIRST).build();
+                break;
+            default:
+                root = Graphs.mapHeavy(nodes);
+                options = CopyOptions.defaults();
+        }
+    }
+
+    @Benchmark
+    public ParentEntity copy() {
+        return CopyService.copy(root, options);
+    }
+}
@@ -0,0 +1,68 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.seazzle.CopyService;
+import org.seazzle.Instantiators;
+import org.seazzle.benchmark.model.ChildEntity;
+import org.seazzle.benchmark.model.Graphs;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Creates the empty copies of a 100 000 node graph, through {@code getDeclaredConstructor()} and
+ * {@code Constructor.newInstance} per node (what {@code CopyService} did before the {@link Instantiators}), through
+ * the cached instantiator, and with a plain {@code new} as the lower bound. {@code copy} copies the whole graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstantiationBenchmark {
+
+    @Param({"100000"})
+    private int nodes;
+
+    private ParentEntity root;
+    private Supplier<?> instantiator;
+
+    @Setup
+    public void setUp() {
+        root = Graphs.wide(nodes);
+        // resolved once, as the copy plan holds it
+        instantiator = Instantiators.of(ChildEntity.class);
+    }
+
+    @Benchmark
+    public void reflectiveConstructor(Blackhole blackhole) throws ReflectiveOperationException {
+        for (int i = 0; i < nodes; i++) {
+            Constructor<?> constructor = ChildEntity.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            blackhole.consume(constructor.newInstance());
+        }
+    }
+
+    @Benchmark
+    public void cachedInstantiator(Blackhole blackhole) {
+        for (int i = 0; i < nodes; i++) {
+            blackhole.consume(instantiator.get());
+        }
+    }
+
+    @Benchmark
+    public void plainNew(Blackhole blackhole) {
+        for (int i = 0; i < nodes; i++) {
+            blackhole.consume(new ChildEntity());
+        }
+    }
+
+    @Benchmark
+    public ParentEntity copy() {
+        return CopyService.copy(root);
+    }
+}
@@ -0,0 +1,63 @@
+package org.seazzle.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.seazzle.CopyOptions;
+import org.seazzle.CopyService;
+import org.seazzle.benchmark.model.ChildEntity;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies one parent with a wide collection of children, sequentially (parallelism 1) or on a {@link ForkJoinPool}
+ * with the given parallelism.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelCopyBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"100000"})
+    private int children;
+
+    private ParentEntity parent;
+    private ForkJoinPool pool;
+    private CopyOptions options;
+
+    @Setup
+    public void setUp() {
+        parent = new ParentEntity();
+        for (int i = 0; i < children; i++) {
+            ChildEntity child = new ChildEntity();
+            child.setStringField("child" + i);
+            child.setBoolField(i % 2 == 0);
+            child.setParentEntity(parent);
+            parent.getChildren().add(child);
+        }
+        if (parallelism == 1) {
+            options = CopyOptions.defaults();
+        } else {
+            pool = new ForkJoinPool(parallelism);
+            options = CopyOptions.builder().parallelThreshold(1_000).forkJoinPool(pool).build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public ParentEntity copy() {
+        return CopyService.copy(parent, options);
+    }
+}
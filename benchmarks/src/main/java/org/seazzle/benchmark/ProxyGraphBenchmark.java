@@ -0,0 +1,87 @@
+package org.seazzle.benchmark;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.seazzle.CopyService;
+import org.seazzle.benchmark.model.ChildEntity;
+import org.seazzle.benchmark.model.MapValue;
+import org.seazzle.benchmark.model.ParentEntity;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies a wide graph loaded by Hibernate from an in-memory H2 database: the root is an initialized proxy, the
+ * children sit in a persistent bag and reference the root through initialized proxies. Everything is loaded in the
+ * setup, so the benchmark measures unproxying and persistent collections, not the database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ProxyGraphBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int nodes;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private ParentEntity root;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ParentEntity.class)
+                .addAnnotatedClass(ChildEntity.class)
+                .addAnnotatedClass(MapValue.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:proxies;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "1000")
+                .buildSessionFactory();
+
+        UUID rootId = sessionFactory.fromTransaction(s -> {
+            ParentEntity parent = new ParentEntity();
+            parent.setStringField("parent");
+            s.persist(parent);
+            for (int i = 1; i < nodes; i++) {
+                ChildEntity child = new ChildEntity();
+                child.setStringField("child" + i);
+                child.setParentEntity(parent);
+                s.persist(child);
+                if (i % 1000 == 0) {
+                    s.flush();
+                    s.clear();
+                    parent = s.getReference(ParentEntity.class, parent.getId());
+                }
+            }
+            return parent.getId();
+        });
+
+        session = sessionFactory.openSession();
+        // loading the children first leaves proxies of the root in their parentEntity
+        List<ChildEntity> children = session.createSelectionQuery("from ChildEntity", ChildEntity.class).getResultList();
+        root = session.getReference(ParentEntity.class, rootId);
+        Hibernate.initialize(root);
+        Hibernate.initialize(root.getChildren());
+        if (children.size() != nodes - 1 || Hibernate.unproxy(children.get(0).getParentEntity()) != Hibernate.unproxy(root)) {
+            throw new IllegalStateException("Unexpected graph, loaded " + children.size() + " children");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public ParentEntity copy() {
+        return CopyService.copy(root);
+    }
+}
@@ -0,0 +1,48 @@
+package org.seazzle.benchmark.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+@Entity
+public class ChildEntity extends BaseEntityWithGeneratedId implements CopySupport {
+    @ManyToOne(fetch = FetchType.LAZY)
+    private ParentEntity parentEntity;
+    private Boolean booleanField;
+    private boolean boolField;
+    private String stringField;
+
+    public ParentEntity getParentEntity() {
+        return parentEntity;
+    }
+
+    public void setParentEntity(ParentEntity parentEntity) {
+        this.parentEntity = parentEntity;
+    }
+
+    public Boolean getBooleanField() {
+        return booleanField;
+    }
+
+    public void setBooleanField(Boolean booleanField) {
+        this.booleanField = booleanField;
+    }
+
+    public boolean isBoolField() {
+        return boolField;
+    }
+
+    public void setBoolField(boolean boolField) {
+        this.boolField = boolField;
+    }
+
+    public String getStringField() {
+        return stringField;
+    }
+
+    public void setStringField(String stringField) {
+        this.stringField = stringField;
+    }
+}
@@ -0,0 +1,71 @@
+package org.seazzle.benchmark.model;
+
+/**
+ * Builds the graph shapes measured by the benchmarks, each with the given number of copied nodes.
+ */
+public final class Graphs {
+
+    private Graphs() {
+    }
+
+    /**
+     * One parent with {@code nodes - 1} children, each referencing the parent.
+     */
+    public static ParentEntity wide(int nodes) {
+        ParentEntity parent = parent(0);
+        for (int i = 1; i < nodes; i++) {
+            ChildEntity child = child(i);
+            child.setParentEntity(parent);
+            parent.getChildren().add(child);
+        }
+        return parent;
+    }
+
+    /**
+     * A chain of alternating parents and children, parent to child through {@code child}, child to the next parent
+     * through {@code parentEntity}.
+     */
+    public static ParentEntity deep(int nodes) {
+        ParentEntity root = parent(0);
+        ParentEntity current = root;
+        for (int i = 1; i < nodes; i += 2) {
+            ChildEntity child = child(i);
+            current.setChild(child);
+            if (i + 1 < nodes) {
+                ParentEntity next = parent(i + 1);
+                child.setParentEntity(next);
+                current = next;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * One parent with {@code nodes - 1} map values.
+     */
+    public static ParentEntity mapHeavy(int nodes) {
+        ParentEntity parent = parent(0);
+        for (int i = 1; i < nodes; i++) {
+            MapValue value = new MapValue();
+            value.setStringValue("value" + i);
+            parent.getKeyValues().put("key" + i, value);
+        }
+        return parent;
+    }
+
+    private static ParentEntity parent(int index) {
+        ParentEntity parent = new ParentEntity();
+        parent.setStringField("parent" + index);
+        parent.setIntegerField(index);
+        parent.setIntField(index);
+        return parent;
+    }
+
+    private static ChildEntity child(int index) {
+        ChildEntity child = new ChildEntity();
+        child.setStringField("child" + index);
+        child.setBooleanField(Boolean.TRUE);
+        child.setBoolField(index % 2 == 0);
+        return child;
+    }
+}
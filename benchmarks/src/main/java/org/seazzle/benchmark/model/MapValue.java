@@ -0,0 +1,18 @@
+package org.seazzle.benchmark.model;
+
+import jakarta.persistence.Entity;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+@Entity
+public class MapValue extends BaseEntityWithGeneratedId implements CopySupport {
+    private String stringValue;
+
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    public void setStringValue(String stringValue) {
+        this.stringValue = stringValue;
+    }
+}
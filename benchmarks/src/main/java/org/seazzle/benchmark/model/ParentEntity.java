@@ -0,0 +1,73 @@
+package org.seazzle.benchmark.model;
+
+import jakarta.persistence.*;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Entity
+public class ParentEntity extends BaseEntityWithGeneratedId implements CopySupport {
+    private String stringField;
+    private Integer integerField;
+    private int intField;
+    @OneToMany(mappedBy = "parentEntity")
+    private List<ChildEntity> children = new ArrayList<>();
+    @ManyToOne(fetch = FetchType.LAZY)
+    private ChildEntity child;
+    @OneToMany
+    @JoinTable(name = "PARENT_KEY_VALUES")
+    @MapKeyColumn(name = "MAP_KEY")
+    private Map<String, MapValue> keyValues = new HashMap<>();
+
+    public String getStringField() {
+        return stringField;
+    }
+
+    public void setStringField(String stringField) {
+        this.stringField = stringField;
+    }
+
+    public Integer getIntegerField() {
+        return integerField;
+    }
+
+    public void setIntegerField(Integer integerField) {
+        this.integerField = integerField;
+    }
+
+    public int getIntField() {
+        return intField;
+    }
+
+    public void setIntField(int intField) {
+        this.intField = intField;
+    }
+
+    public List<ChildEntity> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<ChildEntity> children) {
+        this.children = children;
+    }
+
+    public ChildEntity getChild() {
+        return child;
+    }
+
+    public void setChild(ChildEntity child) {
+        this.child = child;
+    }
+
+    public Map<String, MapValue> getKeyValues() {
+        return keyValues;
+    }
+
+    public void setKeyValues(Map<String, MapValue> keyValues) {
+        this.keyValues = keyValues;
+    }
+}
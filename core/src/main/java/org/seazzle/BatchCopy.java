@@ -0,0 +1,44 @@
+package org.seazzle;
+
+import java.util.function.Function;
+
+/**
+ * Copies independent roots with one session per thread, cleared after every root, see
+ * {@link CopyService#copyAll(java.util.stream.Stream, CopyOptions)}. The session keeps its identity map and work
+ * queues, so copying many small aggregates does not allocate them again and again.
+ */
+final class BatchCopy<T> implements Function<T, T> {
+
+    private final CopyOptions options;
+    private final ThreadLocal<Slot> slots = ThreadLocal.withInitial(Slot::new);
+
+    BatchCopy(CopyOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public T apply(T root) {
+        Slot slot = slots.get();
+        if (slot.busy || options.isLazy()) {
+            // a worker joining a parallel copy may run the copy of another root in the meantime,
+            // and lazy copies keep using the session of their root after it is returned
+            return CopyService.copy(root, new CopySession(options));
+        }
+        if (slot.session == null) {
+            slot.session = new CopySession(options);
+        }
+        slot.busy = true;
+        try {
+            return CopyService.copy(root, slot.session);
+        } finally {
+            // the session must not keep the graphs reachable once the root is copied
+            slot.session.clear();
+            slot.busy = false;
+        }
+    }
+
+    private static final class Slot {
+        private CopySession session;
+        private boolean busy;
+    }
+}
@@ -0,0 +1,163 @@
+package org.seazzle;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The {@link CopyStrategy#BYTECODE} variant of a {@link CopyPlan}. For every class in the hierarchy a hidden nestmate
+ * class is generated, which copies all primitive and {@link ImmutableTypes immutable} fields declared there with plain
+ * {@code getfield}/{@code putfield} instructions. All other fields remain with the reflective plan.
+ */
+final class BytecodeCopyPlan {
+
+    private static final ClassValue<BytecodeCopyPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BytecodeCopyPlan computeValue(Class<?> type) {
+            return new BytecodeCopyPlan(type);
+        }
+    };
+
+    // generated per declaring class, so a superclass is only generated once for all of its subclasses
+    private static final ClassValue<Optional<DirectFieldCopier>> DIRECT_COPIERS = new ClassValue<>() {
+        @Override
+        protected Optional<DirectFieldCopier> computeValue(Class<?> declaringClass) {
+            return generate(declaringClass);
+        }
+    };
+
+    private final DirectFieldCopier[] directCopiers;
+    private final List<CopyPlan.FieldPlan> remainingFields;
+    private final boolean complete;
+
+    private BytecodeCopyPlan(Class<?> type) {
+        // a plan of a generated copier has no reflected fields, its accessors are plain code already
+        Set<Class<?>> declaringClasses = new LinkedHashSet<>();
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(type).getFields()) {
+            if (fieldPlan.getField() == null) {
+                continue;
+            }
+            declaringClasses.add(fieldPlan.getField().getDeclaringClass());
+        }
+
+        List<DirectFieldCopier> copiers = new ArrayList<>();
+        Set<Class<?>> generated = new HashSet<>();
+        for (Class<?> declaringClass : declaringClasses) {
+            DIRECT_COPIERS.get(declaringClass).ifPresent(copier -> {
+                copiers.add(copier);
+                generated.add(declaringClass);
+            });
+        }
+
+        List<CopyPlan.FieldPlan> remaining = new ArrayList<>();
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(type).getFields()) {
+            if (!isDirect(fieldPlan) || !generated.contains(fieldPlan.getField().getDeclaringClass())) {
+                remaining.add(fieldPlan);
+            }
+        }
+        this.directCopiers = copiers.toArray(new DirectFieldCopier[0]);
+        this.remainingFields = List.copyOf(remaining);
+        this.complete = remaining.stream().noneMatch(BytecodeCopyPlan::isDirect);
+    }
+
+    static BytecodeCopyPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    void copyDirectFields(Object source, Object target) {
+        for (DirectFieldCopier copier : directCopiers) {
+            copier.copy(source, target);
+        }
+    }
+
+    /**
+     * @return false if some direct fields are left to the reflective plan, as their copier could not be generated
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    List<CopyPlan.FieldPlan> getRemainingFields() {
+        return remainingFields;
+    }
+
+    static boolean isDirect(CopyPlan.FieldPlan fieldPlan) {
+        if (fieldPlan.getField() == null || fieldPlan.getMode() != FieldCopyMode.COPY || Modifier.isFinal(fieldPlan.getField().getModifiers())) {
+            return false;
+        }
+        return fieldPlan.getKind() == CopyPlan.FieldKind.PRIMITIVE || fieldPlan.isImmutable();
+    }
+
+    private static Optional<DirectFieldCopier> generate(Class<?> declaringClass) {
+        List<Field> fields = new ArrayList<>();
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(declaringClass).getFields()) {
+            // fields of a generated copier have no reflected field, isDirect rejects them first
+            if (isDirect(fieldPlan) && fieldPlan.getField().getDeclaringClass() == declaringClass) {
+                fields.add(fieldPlan.getField());
+            }
+        }
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            // a nestmate of the declaring class may access its private fields directly
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+                    .defineHiddenClass(generateBytes(declaringClass, fields), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return Optional.of((DirectFieldCopier) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke());
+        } catch (Throwable e) {
+            if (e instanceof VirtualMachineError) {
+                throw (VirtualMachineError) e;
+            }
+            // e.g. the entity lives in a module which is not open to us, the reflective plan handles these fields
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] generateBytes(Class<?> declaringClass, List<Field> fields) {
+        String owner = Type.getInternalName(declaringClass);
+        String name = owner + "$$DirectFieldCopier";
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V16, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null,
+                Type.getInternalName(Object.class), new String[]{Type.getInternalName(DirectFieldCopier.class)});
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        // public void copy(Object source, Object target) { target.a = source.a; target.b = source.b; ... }
+        MethodVisitor copy = writer.visitMethod(Opcodes.ACC_PUBLIC, "copy", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        copy.visitCode();
+        copy.visitVarInsn(Opcodes.ALOAD, 1);
+        copy.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        copy.visitVarInsn(Opcodes.ASTORE, 3);
+        copy.visitVarInsn(Opcodes.ALOAD, 2);
+        copy.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        copy.visitVarInsn(Opcodes.ASTORE, 4);
+        for (Field field : fields) {
+            String descriptor = Type.getDescriptor(field.getType());
+            copy.visitVarInsn(Opcodes.ALOAD, 4);
+            copy.visitVarInsn(Opcodes.ALOAD, 3);
+            copy.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), descriptor);
+            copy.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), descriptor);
+        }
+        copy.visitInsn(Opcodes.RETURN);
+        copy.visitMaxs(0, 0);
+        copy.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
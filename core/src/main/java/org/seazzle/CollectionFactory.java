@@ -0,0 +1,32 @@
+package org.seazzle;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Creates the empty collections and maps the copied elements are added to, see
+ * {@link CopyOptions.Builder#collectionFactory(CollectionFactory)}. The result must be assignable to the declared type
+ * of the field.
+ */
+public interface CollectionFactory {
+
+    /**
+     * @param declaredType the type of the field, a {@link Collection}
+     * @param source       the collection being copied
+     */
+    Collection<Object> newCollection(Class<?> declaredType, Collection<?> source);
+
+    /**
+     * @param declaredType the type of the field, a {@link Map}
+     * @param source       the map being copied
+     */
+    Map<Object, Object> newMap(Class<?> declaredType, Map<?, ?> source);
+
+    /**
+     * The default factory: targets are sized for the source and keep its kind, i.e. sort order and comparator,
+     * insertion order, enum keys and queues. Custom factories may delegate to it for the types they do not handle.
+     */
+    static CollectionFactory defaults() {
+        return DefaultCollectionFactory.INSTANCE;
+    }
+}
@@ -0,0 +1,20 @@
+package org.seazzle;
+
+import java.util.List;
+
+/**
+ * Copy instructions for one entity class, generated at compile time by the {@code entity-copy-support-processor}
+ * for every class implementing {@link CopySupport}. Generated copiers are registered as services, the
+ * {@link CopyPlan} of such a class is built from its copier instead of reflection.
+ */
+public interface Copier<T> {
+
+    Class<T> type();
+
+    T newInstance();
+
+    /**
+     * @return all fields that should be copied, in declaration order
+     */
+    List<GeneratedField<T>> fields();
+}
@@ -0,0 +1,43 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+
+/**
+ * Looks up the generated {@link Copier} of an entity class through the {@link ServiceLoader} of the class loader
+ * which defined the entity class. The copiers of a class loader are loaded once and indexed by their type.
+ */
+final class CopierRegistry {
+
+    // the copiers keep their class loader reachable, the soft reference lets an unused class loader be unloaded
+    private static final Map<ClassLoader, SoftReference<Map<Class<?>, Copier<?>>>> COPIERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CopierRegistry() {
+    }
+
+    @Nullable
+    static Copier<?> find(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        return copiersOf(classLoader).get(type);
+    }
+
+    private static Map<Class<?>, Copier<?>> copiersOf(ClassLoader classLoader) {
+        SoftReference<Map<Class<?>, Copier<?>>> reference = COPIERS.get(classLoader);
+        Map<Class<?>, Copier<?>> copiers = reference != null ? reference.get() : null;
+        if (copiers == null) {
+            // loaded outside the lock, a race only loads the same copiers twice
+            Map<Class<?>, Copier<?>> loaded = new HashMap<>();
+            for (Copier<?> copier : ServiceLoader.load(Copier.class, classLoader)) {
+                loaded.putIfAbsent(copier.type(), copier);
+            }
+            copiers = Map.copyOf(loaded);
+            COPIERS.put(classLoader, new SoftReference<>(copiers));
+        }
+        return copiers;
+    }
+}
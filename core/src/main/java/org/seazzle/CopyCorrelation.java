@@ -0,0 +1,132 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Which entity of a copy was copied from which original, by their identifiers, together with the version each
+ * original had at that time. It is taken from a {@link CopySession} once the copies have identifiers, i.e. after they
+ * were persisted or with an {@link IdGenerator}, and kept with the copy, e.g. a draft of a template, to
+ * {@link CopyService#sync sync} the copy when the originals change:
+ * <pre>
+ * CopySession session = new CopySession();
+ * Template draft = CopyService.copy(template, session);
+ * entityManager.persist(draft);
+ * entityManager.flush();
+ * CopyCorrelation correlation = CopyCorrelation.of(session);
+ * </pre>
+ * Originals and copies without identifier, e.g. deep copies of values, are left out.
+ */
+public final class CopyCorrelation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Key, Entry> entries;
+
+    private CopyCorrelation(Map<Key, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static CopyCorrelation of(@NotNull CopySession session) {
+        Objects.requireNonNull(session, "The copy session must not be null");
+        Map<Key, Entry> entries = new HashMap<>();
+        session.forEachCopy((original, copy) -> {
+            Object originalId = EntityIds.idOf(original);
+            Object copyId = EntityIds.idOf(copy);
+            if (originalId != null && copyId != null) {
+                entries.put(new Key(original.getClass().getName(), originalId), new Entry((Serializable) copyId, (Serializable) EntityIds.versionOf(original)));
+            }
+        });
+        return new CopyCorrelation(entries);
+    }
+
+    /**
+     * @return the number of correlated entities
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Nullable
+    Entry get(Object original) {
+        Object originalId = EntityIds.idOf(original);
+        return originalId != null ? entries.get(new Key(original.getClass().getName(), originalId)) : null;
+    }
+
+    /**
+     * @param action called with the original and the entry of every correlated entity
+     */
+    void forEach(BiConsumer<Key, Entry> action) {
+        entries.forEach(action);
+    }
+
+    @Override
+    public String toString() {
+        return "CopyCorrelation[" + entries.size() + " entities]";
+    }
+
+    static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Serializable copyId;
+        // of the original when it was copied or synced, null if it has no version
+        @Nullable
+        private final Serializable version;
+
+        private Entry(Serializable copyId, @Nullable Serializable version) {
+            this.copyId = copyId;
+            this.version = version;
+        }
+
+        Object getCopyId() {
+            return copyId;
+        }
+
+        /**
+         * @return true if the original may have changed since, i.e. its version differs or it has none
+         */
+        boolean isChanged(Object original) {
+            return version == null || !version.equals(EntityIds.versionOf(original));
+        }
+    }
+
+    /**
+     * An entity by its class and identifier.
+     */
+    static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String type;
+        private final Serializable id;
+
+        Key(String type, Object id) {
+            this.type = type;
+            this.id = (Serializable) id;
+        }
+
+        /**
+         * @return the name of the class, also the entity name Hibernate gives it
+         */
+        String getType() {
+            return type;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).type.equals(type) && ((Key) other).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + id.hashCode();
+        }
+    }
+}
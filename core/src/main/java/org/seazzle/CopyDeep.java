@@ -0,0 +1,15 @@
+package org.seazzle;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The value, or the elements of a collection or map, are copied like an entity even if their class does not implement
+ * {@link CopySupport}, e.g. mutable embeddables. Enums and JDK types are never copied.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CopyDeep {
+}
@@ -0,0 +1,79 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The copy bound to one set of {@link CopyOptions}, as an instance to share, e.g. between the request handlers of a
+ * server:
+ * <pre>
+ * CopyEngine engine = CopyEngine.of(CopyOptions.builder().strategy(CopyStrategy.BYTECODE).build());
+ * Department copy = engine.copy(department);
+ * </pre>
+ * An engine is immutable and may be used by any number of threads at once, platform or virtual. Every call copies
+ * within its own {@link CopySession}, the only state shared between calls is the metadata resolved per class
+ * ({@link CopyPlan}, the generated bytecode copiers and the paths of a {@link CopyScope}). It is immutable once
+ * published and read without locks, so concurrent copies neither wait for each other nor pin the carrier thread of
+ * a virtual thread. The static methods of {@link CopyService} copy the same way.
+ */
+public final class CopyEngine {
+
+    private static final CopyEngine DEFAULT = new CopyEngine(CopyOptions.defaults());
+
+    private final CopyOptions options;
+
+    private CopyEngine(CopyOptions options) {
+        this.options = options;
+    }
+
+    public static CopyEngine defaults() {
+        return DEFAULT;
+    }
+
+    public static CopyEngine of(@NotNull CopyOptions options) {
+        return new CopyEngine(Objects.requireNonNull(options, "The copy options must not be null"));
+    }
+
+    public CopyOptions getOptions() {
+        return options;
+    }
+
+    public <T> T copy(T old) {
+        return CopyService.copy(old, null, options);
+    }
+
+    public <T> T copy(T old, @Nullable CopyContext copyContext) {
+        return CopyService.copy(old, copyContext, options);
+    }
+
+    /**
+     * @return a session to copy several roots of one graph consistently, see {@link CopyService#copy(Object, CopySession)}
+     */
+    public CopySession newSession() {
+        return new CopySession(options);
+    }
+
+    /**
+     * @see CopyService#copyAll(Stream, CopyOptions)
+     */
+    public <T> Stream<T> copyAll(@NotNull Stream<T> roots) {
+        return CopyService.copyAll(roots, options);
+    }
+
+    /**
+     * @see CopyService#copyAll(Stream, CopyOptions, int, Consumer)
+     */
+    public <T> long copyAll(@NotNull Stream<T> roots, int chunkSize, @NotNull Consumer<? super List<T>> sink) {
+        return CopyService.copyAll(roots, options, chunkSize, sink);
+    }
+
+    @Override
+    public String toString() {
+        return "CopyEngine[" + options.getStrategy() + ", " + options.getTraversal() + ", " + options.getScope() + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package org.seazzle;
+
+/**
+ * Thrown if a copy fails in one of the iterative {@link CopyTraversal} modes, or when a {@link LazyCopy} is copied on
+ * first access. The path leads from the root entity to the failing entity or field, e.g.
+ * {@code ParentEntity.children[3].items[12]}, for a lazy copy from the owning entity, e.g. {@code ParentEntity.children}.
+ */
+public class CopyException extends RuntimeException {
+
+    private final String path;
+
+    public CopyException(String path, Throwable cause) {
+        super("Error while copying " + path + ": " + cause, cause);
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,15 @@
+package org.seazzle;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The field is not copied, neither read from the original nor written to the copy, which keeps the value its
+ * constructor assigned. Identifiers, versions and creation/update timestamps are ignored without this annotation.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CopyIgnore {
+}
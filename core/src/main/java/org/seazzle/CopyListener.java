@@ -0,0 +1,49 @@
+package org.seazzle;
+
+/**
+ * Observes copies, see {@link CopyOptions.Builder#listener(CopyListener)}. Without a listener the copy does not
+ * measure anything. Listeners of parallel copies are called from several threads.
+ *
+ * @see org.seazzle.metrics.InMemoryCopyMetrics
+ * @see org.seazzle.metrics.JfrCopyListener
+ */
+public interface CopyListener {
+
+    CopyListener NONE = new CopyListener() {
+    };
+
+    /**
+     * A call to {@link CopyService#copy} finished.
+     *
+     * @param rootType the class of the copied root
+     * @param entities the number of entities copied by the call
+     * @param nanos    the duration of the call
+     */
+    default void copyFinished(Class<?> rootType, int entities, long nanos) {
+    }
+
+    /**
+     * @param nanos the time spent on the entity: including all entities copied from it with the recursive traversal,
+     *              for its own fields only with the iterative traversals
+     */
+    default void entityCopied(Class<?> type, long nanos) {
+    }
+
+    default void collectionCopied(Class<?> ownerType, String field, int size) {
+    }
+
+    default void mapCopied(Class<?> ownerType, String field, int size) {
+    }
+
+    /**
+     * A Hibernate proxy was replaced by its implementation.
+     */
+    default void proxyUnwrapped(Class<?> type) {
+    }
+
+    /**
+     * An entity was copied, at least partly, through plain reflection instead of method handles or generated code.
+     */
+    default void reflectiveFallback(Class<?> type) {
+    }
+}
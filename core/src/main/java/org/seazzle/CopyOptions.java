@@ -0,0 +1,223 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+public final class CopyOptions {
+
+    private static final CopyOptions DEFAULTS = builder().build();
+
+    private final CopyStrategy strategy;
+    private final CopyTraversal traversal;
+    private final LazyLoadPolicy lazyLoadPolicy;
+    private final CollectionFactory collectionFactory;
+    private final CopyListener listener;
+    private final CopyScope scope;
+    private final int parallelThreshold;
+    private final ForkJoinPool forkJoinPool;
+    private final int lazyCopyThreshold;
+    private final ValueCollectionPolicy valueCollectionPolicy;
+    @Nullable
+    private final IdGenerator idGenerator;
+
+    private CopyOptions(Builder builder) {
+        this.strategy = builder.strategy;
+        this.traversal = builder.traversal;
+        this.lazyLoadPolicy = builder.lazyLoadPolicy;
+        this.collectionFactory = builder.collectionFactory;
+        this.listener = builder.listener;
+        this.scope = builder.scope;
+        this.parallelThreshold = builder.parallelThreshold;
+        this.forkJoinPool = builder.forkJoinPool;
+        this.lazyCopyThreshold = builder.lazyCopyThreshold;
+        this.valueCollectionPolicy = builder.valueCollectionPolicy;
+        this.idGenerator = builder.idGenerator;
+    }
+
+    public static CopyOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public CopyStrategy getStrategy() {
+        return strategy;
+    }
+
+    public CopyTraversal getTraversal() {
+        return traversal;
+    }
+
+    public LazyLoadPolicy getLazyLoadPolicy() {
+        return lazyLoadPolicy;
+    }
+
+    public CollectionFactory getCollectionFactory() {
+        return collectionFactory;
+    }
+
+    public CopyListener getListener() {
+        return listener;
+    }
+
+    public CopyScope getScope() {
+        return scope;
+    }
+
+    public boolean isParallel() {
+        return parallelThreshold > 0;
+    }
+
+    /**
+     * @return the minimum size of a collection or map to copy its elements in parallel, 0 if parallel copies are disabled
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public boolean isLazy() {
+        return lazyCopyThreshold > 0;
+    }
+
+    /**
+     * @return the minimum size of a collection or map of entities to copy it on first access, 0 if lazy copies are
+     * disabled
+     */
+    public int getLazyCopyThreshold() {
+        return lazyCopyThreshold;
+    }
+
+    public ValueCollectionPolicy getValueCollectionPolicy() {
+        return valueCollectionPolicy;
+    }
+
+    /**
+     * @return the generator of the identifiers of the copies, or null to leave them to the persistence provider
+     */
+    @Nullable
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public static final class Builder {
+
+        private CopyStrategy strategy = CopyStrategy.REFLECTION;
+        private CopyTraversal traversal = CopyTraversal.RECURSIVE;
+        private LazyLoadPolicy lazyLoadPolicy = LazyLoadPolicy.INITIALIZE;
+        private CollectionFactory collectionFactory = CollectionFactory.defaults();
+        private CopyListener listener = CopyListener.NONE;
+        private CopyScope scope = CopyScope.all();
+        private int parallelThreshold;
+        private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+        private int lazyCopyThreshold;
+        private ValueCollectionPolicy valueCollectionPolicy = ValueCollectionPolicy.COPY;
+        @Nullable
+        private IdGenerator idGenerator;
+
+        private Builder() {
+        }
+
+        public Builder strategy(@NotNull CopyStrategy strategy) {
+            this.strategy = Objects.requireNonNull(strategy, "The copy strategy must not be null");
+            return this;
+        }
+
+        public Builder traversal(@NotNull CopyTraversal traversal) {
+            this.traversal = Objects.requireNonNull(traversal, "The copy traversal must not be null");
+            return this;
+        }
+
+        public Builder lazyLoadPolicy(@NotNull LazyLoadPolicy lazyLoadPolicy) {
+            this.lazyLoadPolicy = Objects.requireNonNull(lazyLoadPolicy, "The lazy load policy must not be null");
+            return this;
+        }
+
+        public Builder collectionFactory(@NotNull CollectionFactory collectionFactory) {
+            this.collectionFactory = Objects.requireNonNull(collectionFactory, "The collection factory must not be null");
+            return this;
+        }
+
+        public Builder listener(@NotNull CopyListener listener) {
+            this.listener = Objects.requireNonNull(listener, "The listener must not be null");
+            return this;
+        }
+
+        /**
+         * The associations to copy, all by default.
+         */
+        public Builder scope(@NotNull CopyScope scope) {
+            this.scope = Objects.requireNonNull(scope, "The copy scope must not be null");
+            return this;
+        }
+
+        /**
+         * Copies the elements of collections and maps with at least this many entries in parallel. The graph must be
+         * fully initialized, lazy loading from several threads is not supported by Hibernate.
+         *
+         * @param parallelThreshold the minimum size, 0 disables parallel copies
+         */
+        public Builder parallelThreshold(int parallelThreshold) {
+            if (parallelThreshold < 0) {
+                throw new IllegalArgumentException("The parallel threshold must not be negative, but was " + parallelThreshold);
+            }
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        /**
+         * The pool running parallel copies, the common pool by default.
+         */
+        public Builder forkJoinPool(@NotNull ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = Objects.requireNonNull(forkJoinPool, "The fork join pool must not be null");
+            return this;
+        }
+
+        /**
+         * Copies collections and maps of entities with at least this many entries only when they are first accessed,
+         * see {@link LazyCopy}. Uninitialized Hibernate collections are always copied on first access then.
+         *
+         * @param lazyCopyThreshold the minimum size, 0 disables lazy copies
+         */
+        public Builder lazyCopyThreshold(int lazyCopyThreshold) {
+            if (lazyCopyThreshold < 0) {
+                throw new IllegalArgumentException("The lazy copy threshold must not be negative, but was " + lazyCopyThreshold);
+            }
+            this.lazyCopyThreshold = lazyCopyThreshold;
+            return this;
+        }
+
+        public Builder valueCollectionPolicy(@NotNull ValueCollectionPolicy valueCollectionPolicy) {
+            this.valueCollectionPolicy = Objects.requireNonNull(valueCollectionPolicy, "The value collection policy must not be null");
+            return this;
+        }
+
+        /**
+         * Assigns the identifiers of the copies while they are created, none by default. Hibernate only keeps assigned
+         * identifiers that it does not generate, like the ones of {@link org.seazzle.base.BaseEntityWithAssignableId};
+         * copying an entity with a {@code @GeneratedValue} identifier fails with an {@link IllegalStateException}.
+         */
+        public Builder idGenerator(@Nullable IdGenerator idGenerator) {
+            this.idGenerator = idGenerator;
+            return this;
+        }
+
+        public CopyOptions build() {
+            if (parallelThreshold > 0 && traversal != CopyTraversal.RECURSIVE) {
+                throw new IllegalArgumentException("Parallel copies are only supported with " + CopyTraversal.RECURSIVE + " traversal, but was " + traversal);
+            }
+            if (lazyCopyThreshold > 0 && traversal != CopyTraversal.RECURSIVE) {
+                throw new IllegalArgumentException("Lazy copies are only supported with " + CopyTraversal.RECURSIVE + " traversal, but was " + traversal);
+            }
+            return new CopyOptions(this);
+        }
+    }
+}
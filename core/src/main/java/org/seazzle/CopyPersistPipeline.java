@@ -0,0 +1,395 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Copies an aggregate into the database while it is read from it, for aggregates too large to hold the originals and
+ * the copies in memory at once:
+ * <pre>
+ * Object copyId = CopyPersistPipeline.builder(entityManager).flushInterval(1_000).build().copy(department);
+ * </pre>
+ * Every copy is persisted as soon as its to-one associations are copied, the entities waiting for their associations are
+ * kept on a stack rather than the call stack, so long chains of to-one associations do not overflow it. The persistence
+ * context is flushed and
+ * cleared whenever {@code flushInterval} copies were persisted since the last flush. The entities of an inverse
+ * one-to-many association ({@code mappedBy}) are not read through the collection, but page by page with a query
+ * ordered by their identifier, so no collection has to be loaded in full. Between flushes only the identifiers of the
+ * copied entities are kept, references to copies persisted before are {@link EntityManager#getReference references}.
+ * <p>
+ * The pipeline follows the rules of {@link CopyPlan} and the field {@link FieldCopyMode}s; inverse many-to-many
+ * associations are not followed. Entities need a single identifier attribute. The caller runs the copy in a
+ * transaction, entities managed before the copy are detached by it.
+ */
+public final class CopyPersistPipeline {
+
+    public static final int DEFAULT_FLUSH_INTERVAL = 500;
+
+    // not a valid attribute name
+    private static final String INVERSE_MANY_TO_MANY = "*";
+
+    private final EntityManager entityManager;
+    private final int flushInterval;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final SessionFactoryImplementor sessionFactory;
+
+    // original -> copy by root entity name and identifier of the original
+    private final Map<String, Map<Object, CopiedEntity>> copies = new HashMap<>();
+    private final Deque<InverseAssociation> pending = new ArrayDeque<>();
+    // copies waiting for the copies of their associations, the last one is persisted first
+    private final Deque<PendingEntity> unpersisted = new ArrayDeque<>();
+    private final List<CopiedEntity> unflushed = new ArrayList<>();
+    // inverse one-to-many collection -> mapped by, "" for other collections
+    private final Map<CopyPlan.FieldPlan, String> inverseAssociations = new IdentityHashMap<>();
+    private long persisted;
+
+    private CopyPersistPipeline(Builder builder) {
+        this.entityManager = builder.entityManager;
+        this.flushInterval = builder.flushInterval;
+        this.persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        this.sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+
+    public static Builder builder(@NotNull EntityManager entityManager) {
+        return new Builder(entityManager);
+    }
+
+    /**
+     * Copies and persists the aggregate of the given root, which must be managed by the entity manager.
+     *
+     * @return the identifier of the copy of the root
+     */
+    public Object copy(@NotNull Object root) {
+        Objects.requireNonNull(root, "The root of the copy must not be null");
+        copies.clear();
+        pending.clear();
+        unpersisted.clear();
+        unflushed.clear();
+        persisted = 0;
+
+        Session session = entityManager.unwrap(Session.class);
+        Integer batchSize = session.getJdbcBatchSize();
+        // the inserts of one flush go out in as few batches as possible
+        session.setJdbcBatchSize(flushInterval);
+        try {
+            CopiedEntity rootCopy = copyEntity(Hibernate.unproxy(root));
+            flushIfFull(true);
+            while (!pending.isEmpty()) {
+                copyInverse(pending.pollFirst());
+            }
+            flushIfFull(true);
+            return rootCopy.id;
+        } finally {
+            session.setJdbcBatchSize(batchSize);
+        }
+    }
+
+    /**
+     * @return the number of entities persisted by the last copy
+     */
+    public long getPersistedCount() {
+        return persisted;
+    }
+
+    /**
+     * Copies an entity and the entities it references which were not copied yet, every copy is persisted after the
+     * copies it references, except for those on a cycle.
+     */
+    private CopiedEntity copyEntity(Object original) {
+        CopiedEntity copied = push(original);
+        while (!unpersisted.isEmpty()) {
+            PendingEntity entity = unpersisted.peekLast();
+            if (entity.filled) {
+                unpersisted.pollLast();
+                persist(entity);
+            } else {
+                // the copies it references are pushed on top of it
+                entity.filled = true;
+                fill(entity);
+            }
+        }
+        return copied;
+    }
+
+    private CopiedEntity push(Object original) {
+        Class<?> type = Hibernate.getClass(original);
+        Object originalId = persistenceUnitUtil.getIdentifier(original);
+        try {
+            CopyPlan plan = CopyPlan.of(type);
+            CopiedEntity copied = new CopiedEntity(type, plan.newInstance(original));
+            copiesOf(type).put(originalId, copied);
+            unpersisted.addLast(new PendingEntity(plan, originalId, original, copied));
+            return copied;
+        } catch (Exception e) {
+            throw new CopyException(type.getSimpleName() + "#" + originalId, e);
+        }
+    }
+
+    private void fill(PendingEntity entity) {
+        try {
+            for (CopyPlan.FieldPlan fieldPlan : entity.plan.getFields()) {
+                copyField(fieldPlan, entity.copied.type, entity.originalId, entity.original, entity.copied.instance);
+            }
+        } catch (CopyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CopyException(entity.copied.type.getSimpleName() + "#" + entity.originalId, e);
+        }
+    }
+
+    private void persist(PendingEntity entity) {
+        CopiedEntity copied = entity.copied;
+        try {
+            entityManager.persist(copied.instance);
+        } catch (Exception e) {
+            throw new CopyException(copied.type.getSimpleName() + "#" + entity.originalId, e);
+        }
+        copied.id = persistenceUnitUtil.getIdentifier(copied.instance);
+        persisted++;
+        unflushed.add(copied);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void copyField(CopyPlan.FieldPlan fieldPlan, Class<?> type, Object originalId, Object original, Object copy) throws IllegalAccessException {
+        FieldAccessor accessor = fieldPlan.getAccessor();
+        if (fieldPlan.getMode() == FieldCopyMode.RESET) {
+            accessor.set(copy, fieldPlan.getResetValue());
+            return;
+        }
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.PRIMITIVE || fieldPlan.isImmutable()) {
+            accessor.copy(original, copy);
+            return;
+        }
+
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION || fieldPlan.getKind() == CopyPlan.FieldKind.MAP) {
+            String mappedBy = inverseAssociations.computeIfAbsent(fieldPlan, f -> mappedBy(fieldOf(type, f)));
+            if (!mappedBy.isEmpty()) {
+                // the elements reference their owner, they are copied from a query instead of the collection
+                if (!mappedBy.equals(INVERSE_MANY_TO_MANY) && fieldPlan.isTraversed()) {
+                    pending.add(new InverseAssociation(type, originalId, fieldPlan.getElementType(), mappedBy));
+                }
+                return;
+            }
+        }
+
+        Object value = accessor.get(original);
+        if (value == null) {
+            accessor.set(copy, null);
+            return;
+        }
+        if (fieldPlan.getMode() == FieldCopyMode.SHALLOW || fieldPlan.hasImmutableElements()) {
+            accessor.set(copy, CopyService.shallowCopyOf(fieldPlan, value, CopyOptions.defaults()));
+            return;
+        }
+        switch (fieldPlan.getKind()) {
+            case MAP: {
+                Map target = CopyService.newMapInstance(fieldPlan.getName(), fieldPlan.getType(), (Map<?, ?>) value, CollectionFactory.defaults());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    target.put(referenceTo(entry.getKey()), referenceTo(entry.getValue()));
+                }
+                accessor.set(copy, target);
+                break;
+            }
+            case COLLECTION: {
+                Collection target = CopyService.newCollectionInstance(fieldPlan.getType(), (Collection<?>) value, CollectionFactory.defaults());
+                for (Object element : (Collection<?>) value) {
+                    target.add(referenceTo(element));
+                }
+                accessor.set(copy, target);
+                break;
+            }
+            case COPY_SUPPORT:
+                accessor.set(copy, referenceTo(value));
+                break;
+            default:
+                accessor.set(copy, fieldPlan.getMode() == FieldCopyMode.DEEP
+                        ? CopyService.copyRecursive(value, true, CopyScope.all().root(), new CopySession())
+                        : value);
+        }
+    }
+
+    /**
+     * @return the copy of an entity, pushed to be copied and persisted before the entity referencing it if necessary,
+     * or the value itself
+     */
+    private Object referenceTo(@Nullable Object value) {
+        if (!(value instanceof CopySupport)) {
+            return value;
+        }
+        Class<?> type;
+        Object id;
+        if (value instanceof HibernateProxy) {
+            // neither initialized nor loaded if it was copied already
+            type = ((HibernateProxy) value).getHibernateLazyInitializer().getPersistentClass();
+            id = ((HibernateProxy) value).getHibernateLazyInitializer().getInternalIdentifier();
+        } else {
+            type = value.getClass();
+            id = persistenceUnitUtil.getIdentifier(value);
+        }
+        CopiedEntity copied = copiesOf(type).get(id);
+        if (copied == null) {
+            copied = push(Hibernate.unproxy(value));
+        }
+        // the instance while it is managed, a reference to the persisted copy afterwards
+        return copied.instance != null ? copied.instance : entityManager.getReference(copied.type, copied.id);
+    }
+
+    private void copyInverse(InverseAssociation association) {
+        EntityType<?> elementType = entityManager.getMetamodel().entity(association.elementType);
+        String idName = elementType.getId(elementType.getIdType().getJavaType()).getName();
+        String select = "select e from " + elementType.getName() + " e where e." + association.mappedBy + " = :owner";
+        Object owner = entityManager.getReference(association.ownerType, association.ownerId);
+
+        Object last = null;
+        while (true) {
+            TypedQuery<?> query = entityManager.createQuery(
+                    select + (last != null ? " and e." + idName + " > :last" : "") + " order by e." + idName, association.elementType);
+            query.setParameter("owner", owner).setMaxResults(flushInterval);
+            if (last != null) {
+                query.setParameter("last", last);
+            }
+            List<?> page = query.getResultList();
+            for (Object element : page) {
+                // elements referenced from elsewhere in the aggregate may be copied already
+                if (!copiesOf(Hibernate.getClass(element)).containsKey(persistenceUnitUtil.getIdentifier(element))) {
+                    copyEntity(element);
+                }
+            }
+            if (page.size() < flushInterval) {
+                return;
+            }
+            last = persistenceUnitUtil.getIdentifier(page.get(page.size() - 1));
+            flushIfFull(false);
+            // the owner is detached by the clear
+            owner = entityManager.getReference(association.ownerType, association.ownerId);
+        }
+    }
+
+    /**
+     * Flushes and clears the persistence context if enough copies are pending, or always if forced. The managed
+     * instances of the copies are dropped, only their identifiers are kept.
+     */
+    private void flushIfFull(boolean force) {
+        if (unflushed.isEmpty() || (!force && unflushed.size() < flushInterval)) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        for (CopiedEntity copied : unflushed) {
+            copied.instance = null;
+        }
+        unflushed.clear();
+    }
+
+    private Map<Object, CopiedEntity> copiesOf(Class<?> type) {
+        // subclasses share the identifiers of their root entity
+        String rootEntityName = sessionFactory.getMappingMetamodel().getEntityDescriptor(type).getRootEntityName();
+        return copies.computeIfAbsent(rootEntityName, name -> new HashMap<>());
+    }
+
+    private static Field fieldOf(Class<?> type, CopyPlan.FieldPlan fieldPlan) {
+        if (fieldPlan.getField() != null) {
+            return fieldPlan.getField();
+        }
+        for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+            if (field.getName().equals(fieldPlan.getName())) {
+                return field;
+            }
+        }
+        throw new IllegalStateException("No field " + fieldPlan.getName() + " in " + type);
+    }
+
+    private static String mappedBy(Field field) {
+        OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+        if (oneToMany != null) {
+            return oneToMany.mappedBy();
+        }
+        ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+        return manyToMany != null && !manyToMany.mappedBy().isEmpty() ? INVERSE_MANY_TO_MANY : "";
+    }
+
+    private static final class CopiedEntity {
+
+        private final Class<?> type;
+        // null once flushed and cleared
+        @Nullable
+        private Object instance;
+        @Nullable
+        private Object id;
+
+        private CopiedEntity(Class<?> type, Object instance) {
+            this.type = type;
+            this.instance = instance;
+        }
+    }
+
+    private static final class PendingEntity {
+
+        private final CopyPlan plan;
+        private final Object originalId;
+        private final Object original;
+        private final CopiedEntity copied;
+        // true once the fields of the copy are copied
+        private boolean filled;
+
+        private PendingEntity(CopyPlan plan, Object originalId, Object original, CopiedEntity copied) {
+            this.plan = plan;
+            this.originalId = originalId;
+            this.original = original;
+            this.copied = copied;
+        }
+    }
+
+    private static final class InverseAssociation {
+
+        private final Class<?> ownerType;
+        private final Object ownerId;
+        private final Class<?> elementType;
+        private final String mappedBy;
+
+        private InverseAssociation(Class<?> ownerType, Object ownerId, Class<?> elementType, String mappedBy) {
+            this.ownerType = ownerType;
+            this.ownerId = ownerId;
+            this.elementType = elementType;
+            this.mappedBy = mappedBy;
+        }
+    }
+
+    public static final class Builder {
+
+        private final EntityManager entityManager;
+        private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+        private Builder(EntityManager entityManager) {
+            this.entityManager = Objects.requireNonNull(entityManager, "The entity manager must not be null");
+        }
+
+        /**
+         * @param flushInterval the number of copies persisted between two flushes, also the page size of the queries
+         */
+        public Builder flushInterval(int flushInterval) {
+            if (flushInterval < 1) {
+                throw new IllegalArgumentException("The flush interval must be at least 1, but was " + flushInterval);
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public CopyPersistPipeline build() {
+            return new CopyPersistPipeline(this);
+        }
+    }
+}
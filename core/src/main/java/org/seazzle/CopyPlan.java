@@ -0,0 +1,334 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The resolved copy instructions for one entity class: the fields to copy, in declaration order, each already
+ * classified and bound to a {@link FieldAccessor}. Plans are computed once per class and reused for every copied
+ * instance. If a {@link Copier} was generated for the class, the plan is built from it without any reflection.
+ * <p>
+ * Fields annotated with {@link CopyIgnore} are left out, as are fields maintained by the persistence provider unless
+ * they carry another copy annotation: {@code @Id}, {@code @EmbeddedId}, {@code @GeneratedValue}, {@code @Version},
+ * {@code @CreationTimestamp} and {@code @UpdateTimestamp}.
+ */
+public final class CopyPlan {
+
+    private static final List<Class<? extends Annotation>> COPY_ANNOTATIONS = List.of(
+            CopyIgnore.class, CopyDeep.class, CopyShallow.class, CopyReset.class);
+
+    private static final List<Class<? extends Annotation>> PERSISTENCE_MANAGED = List.of(
+            Id.class, EmbeddedId.class, GeneratedValue.class, Version.class, CreationTimestamp.class, UpdateTimestamp.class);
+
+    private static final ClassValue<CopyPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected CopyPlan computeValue(Class<?> type) {
+            Copier<?> copier = CopierRegistry.find(type);
+            return copier != null ? new CopyPlan(type, copier) : new CopyPlan(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<FieldPlan> fields;
+    @Nullable
+    private final Copier<?> copier;
+    private final boolean reflective;
+    @Nullable
+    private Supplier<?> instantiator;
+
+    private CopyPlan(Class<?> type) {
+        this.type = type;
+        this.copier = null;
+
+        List<FieldPlan> resolved = new ArrayList<>();
+        for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+            FieldCopyMode mode = Modifier.isStatic(field.getModifiers()) ? null : modeOf(field);
+            if (mode == null) {
+                continue;
+            }
+            field.setAccessible(true);
+            resolved.add(new FieldPlan(field.getName(), field.getType(), typeArgumentsOf(field.getGenericType()), field, FieldAccessor.of(field), mode));
+        }
+        this.fields = List.copyOf(resolved);
+        this.reflective = resolved.stream().anyMatch(fieldPlan -> fieldPlan.getAccessor() instanceof ReflectiveFieldAccessor);
+    }
+
+    private CopyPlan(Class<?> type, Copier<?> copier) {
+        this.type = type;
+        this.copier = copier;
+
+        List<FieldPlan> resolved = new ArrayList<>();
+        for (GeneratedField<?> field : copier.fields()) {
+            resolved.add(new FieldPlan(field.getName(), field.getType(), field.getTypeArguments(), null, field, field.getMode()));
+        }
+        this.fields = List.copyOf(resolved);
+        this.reflective = false;
+    }
+
+    /**
+     * @return the copy mode of the field, or null if it is not copied at all
+     */
+    private static FieldCopyMode modeOf(Field field) {
+        if (COPY_ANNOTATIONS.stream().noneMatch(field::isAnnotationPresent) && PERSISTENCE_MANAGED.stream().anyMatch(field::isAnnotationPresent)) {
+            return null;
+        }
+        return declaredModeOf(field);
+    }
+
+    /**
+     * @return the copy mode given by the copy annotations of the field, {@link FieldCopyMode#COPY} without any, or null
+     * if it is ignored
+     */
+    static FieldCopyMode declaredModeOf(Field field) {
+        List<Class<? extends Annotation>> annotations = COPY_ANNOTATIONS.stream().filter(field::isAnnotationPresent).collect(Collectors.toList());
+        if (annotations.size() > 1) {
+            throw new IllegalStateException("The field " + field + " has conflicting copy annotations " + annotations);
+        }
+        if (annotations.isEmpty()) {
+            return FieldCopyMode.COPY;
+        }
+        Class<? extends Annotation> annotation = annotations.get(0);
+        if (annotation == CopyDeep.class) {
+            return FieldCopyMode.DEEP;
+        }
+        if (annotation == CopyShallow.class) {
+            return FieldCopyMode.SHALLOW;
+        }
+        return annotation == CopyReset.class ? FieldCopyMode.RESET : null;
+    }
+
+    public static CopyPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public List<FieldPlan> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return true if the plan is backed by a {@link Copier} generated at compile time
+     */
+    public boolean isGenerated() {
+        return copier != null;
+    }
+
+    /**
+     * @return true if some fields could not be bound to method handles and are accessed through plain reflection
+     */
+    boolean isReflective() {
+        return reflective;
+    }
+
+    // erased, like the generated copiers declare them
+    private static List<Class<?>> typeArgumentsOf(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return List.of();
+        }
+        List<Class<?>> typeArguments = new ArrayList<>();
+        for (Type argument : ((ParameterizedType) genericType).getActualTypeArguments()) {
+            typeArguments.add(rawTypeOf(argument));
+        }
+        return List.copyOf(typeArguments);
+    }
+
+    private static Class<?> rawTypeOf(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawTypeOf(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return rawTypeOf(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawTypeOf(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T newInstance(T original) throws ReflectiveOperationException {
+        if (copier != null) {
+            return (T) copier.newInstance();
+        }
+        Supplier<?> resolved = instantiator;
+        if (resolved == null) {
+            // resolved once, a race only resolves the same cached instantiator again
+            resolved = Instantiators.of(type);
+            if (resolved == null) {
+                throw new NoSuchMethodException("No instantiator and no no-arg constructor for " + type.getName());
+            }
+            instantiator = resolved;
+        }
+        return (T) resolved.get();
+    }
+
+    public enum FieldKind {
+        PRIMITIVE, SCALAR, MAP, COLLECTION, COPY_SUPPORT;
+
+        static FieldKind of(Class<?> type) {
+            if (type.isPrimitive()) {
+                return PRIMITIVE;
+            }
+            // same precedence as the checks in CopyService.copy
+            if (Map.class.isAssignableFrom(type)) {
+                return MAP;
+            }
+            if (Collection.class.isAssignableFrom(type)) {
+                return COLLECTION;
+            }
+            if (CopySupport.class.isAssignableFrom(type)) {
+                return COPY_SUPPORT;
+            }
+            return SCALAR;
+        }
+    }
+
+    public static final class FieldPlan {
+
+        private final String name;
+        private final Class<?> type;
+        @Nullable
+        private final Field field;
+        private final FieldKind kind;
+        private final Class<?> elementType;
+        private final FieldAccessor accessor;
+        private final FieldCopyMode mode;
+        private final boolean association;
+        private final boolean immutable;
+        private final boolean immutableElements;
+        @Nullable
+        private final Object resetValue;
+
+        FieldPlan(String name, Class<?> type, List<Class<?>> typeArguments, @Nullable Field field, FieldAccessor accessor, FieldCopyMode mode) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+            this.kind = FieldKind.of(type);
+            this.elementType = elementTypeOf(kind, type, typeArguments);
+            this.accessor = accessor;
+            this.mode = mode;
+            // undeclared element types may hold entities
+            this.association = mode == FieldCopyMode.DEEP || kind == FieldKind.COPY_SUPPORT
+                    || ((kind == FieldKind.COLLECTION || kind == FieldKind.MAP)
+                    && (elementType == Object.class || CopySupport.class.isAssignableFrom(elementType)));
+            this.immutable = (mode == FieldCopyMode.COPY || mode == FieldCopyMode.SHALLOW) && kind == FieldKind.SCALAR && ImmutableTypes.isImmutable(type);
+            this.immutableElements = mode == FieldCopyMode.COPY && hasImmutableTypeArguments(kind, typeArguments);
+            // the zero value of primitives
+            this.resetValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+
+        private static Class<?> elementTypeOf(FieldKind kind, Class<?> type, List<Class<?>> typeArguments) {
+            if (kind != FieldKind.COLLECTION && kind != FieldKind.MAP) {
+                return type;
+            }
+            // the values of a map
+            return typeArguments.isEmpty() ? Object.class : typeArguments.get(typeArguments.size() - 1);
+        }
+
+        // the elements of a collection, the keys and values of a map
+        private static boolean hasImmutableTypeArguments(FieldKind kind, List<Class<?>> typeArguments) {
+            if (kind != FieldKind.COLLECTION && kind != FieldKind.MAP) {
+                return false;
+            }
+            return typeArguments.size() == (kind == FieldKind.MAP ? 2 : 1) && typeArguments.stream().allMatch(ImmutableTypes::isImmutable);
+        }
+
+        /**
+         * @return the reflected field, or null if the plan was built from a generated {@link Copier}
+         */
+        @Nullable
+        public Field getField() {
+            return field;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public FieldKind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the type of the elements of a collection, of the values of a map, or the field type otherwise;
+         * {@code Object} if the type arguments are not declared
+         */
+        public Class<?> getElementType() {
+            return elementType;
+        }
+
+        public FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        public FieldCopyMode getMode() {
+            return mode;
+        }
+
+        /**
+         * @return the value a {@link FieldCopyMode#RESET} field is set to
+         */
+        @Nullable
+        Object getResetValue() {
+            return resetValue;
+        }
+
+        /**
+         * @return true if the copy follows the field into the entities it references
+         */
+        public boolean isTraversed() {
+            return mode == FieldCopyMode.COPY || mode == FieldCopyMode.DEEP;
+        }
+
+        /**
+         * @return true if the field references entities, directly or as elements, see {@link CopyScope}
+         */
+        public boolean isAssociation() {
+            return association;
+        }
+
+        /**
+         * @return true if the field holds an {@link ImmutableTypes immutable} value, which the copy references as-is
+         */
+        public boolean isImmutable() {
+            return immutable;
+        }
+
+        /**
+         * @return true if the field is a collection or map declared to hold {@link ImmutableTypes immutable} values
+         * only, which are copied in bulk, see {@link ValueCollectionPolicy}
+         */
+        public boolean hasImmutableElements() {
+            return immutableElements;
+        }
+
+        @Override
+        public String toString() {
+            return mode == FieldCopyMode.COPY ? name + " (" + kind + ")" : name + " (" + kind + ", " + mode + ")";
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.seazzle;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The field of the copy is set to {@code null}, {@code 0} or {@code false}, whatever its constructor assigned. The
+ * original value is not read.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CopyReset {
+}
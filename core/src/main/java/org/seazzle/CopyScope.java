@@ -0,0 +1,291 @@
+package org.seazzle;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The associations a copy follows, given as include and exclude expressions on association paths:
+ * <pre>
+ * CopyScope.of("children.*", "!keyValues")
+ * </pre>
+ * A path is a chain of field names from the root entity, e.g. {@code children.parentEntity}; collection and map
+ * fields stand for their elements. In an expression {@code *} matches one field name, {@code **} any number of them,
+ * a leading {@code !} excludes the matching paths. Without includes all paths are in scope, otherwise the paths
+ * matching an include and the paths leading to them: {@code children} copies the children only,
+ * {@code children.*} also the associations of the children and {@code children.**} everything below.
+ * <p>
+ * Only associations are scoped, i.e. fields of entities and collections or maps of entities; the values of every
+ * copied entity are copied in full. Associations outside of the scope are handled by the {@link OutOfScopePolicy}.
+ * As every entity is copied once per session, an entity reachable on several paths is copied if one of them is in
+ * scope, references reaching it first on another path share the original.
+ */
+public final class CopyScope {
+
+    private static final CopyScope ALL = builder().build();
+
+    private static final String ONE = "*";
+    private static final String ANY = "**";
+
+    private final List<String[]> includes;
+    private final List<String[]> excludes;
+    private final OutOfScopePolicy outOfScopePolicy;
+    // the includes, then the excludes; expression i owns the match states offsets[i] to offsets[i] + its length
+    private final List<String[]> expressions;
+    private final int[] offsets;
+    // paths in the same match states are treated alike below, so they share one node
+    private final ConcurrentMap<BitSet, Path> paths = new ConcurrentHashMap<>();
+    private final Path root;
+
+    private CopyScope(Builder builder) {
+        this.includes = List.copyOf(builder.includes);
+        this.excludes = List.copyOf(builder.excludes);
+        this.outOfScopePolicy = builder.outOfScopePolicy;
+        List<String[]> all = new ArrayList<>(includes);
+        all.addAll(excludes);
+        this.expressions = List.copyOf(all);
+        this.offsets = new int[expressions.size()];
+        // the empty root path is in the first state of every expression
+        BitSet start = new BitSet();
+        int offset = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset;
+            start.set(offset);
+            offset += expressions.get(i).length + 1;
+        }
+        this.root = new Path(this, closure(start), true);
+    }
+
+    /**
+     * @return the scope of a full copy
+     */
+    public static CopyScope all() {
+        return ALL;
+    }
+
+    /**
+     * @param expressions include expressions, and exclude expressions starting with {@code !}
+     */
+    public static CopyScope of(@NotNull String... expressions) {
+        Builder builder = builder();
+        for (String expression : expressions) {
+            Objects.requireNonNull(expression, "A scope expression must not be null");
+            if (expression.startsWith("!")) {
+                builder.exclude(expression.substring(1));
+            } else {
+                builder.include(expression);
+            }
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public OutOfScopePolicy getOutOfScopePolicy() {
+        return outOfScopePolicy;
+    }
+
+    /**
+     * @param path an association path like {@code children.parentEntity}
+     * @return true if the copy follows the association at the path
+     */
+    public boolean includes(@NotNull String path) {
+        if (root.allBelow) {
+            return true;
+        }
+        Path current = root;
+        for (String segment : path.split("\\.")) {
+            current = current.child(segment);
+            if (!current.isIncluded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Path root() {
+        return root;
+    }
+
+    private static String[] parse(String expression) {
+        Objects.requireNonNull(expression, "A scope expression must not be null");
+        String[] segments = expression.split("\\.", -1);
+        for (String segment : segments) {
+            if (segment.isEmpty() || segment.startsWith("!")) {
+                throw new IllegalArgumentException("Invalid scope expression '" + expression + "'");
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Adds the states reached by letting a {@code **} match no field name.
+     */
+    private BitSet closure(BitSet states) {
+        for (int i = 0; i < offsets.length; i++) {
+            String[] expression = expressions.get(i);
+            // in order, so consecutive wildcards are skipped as well
+            for (int p = 0; p < expression.length; p++) {
+                if (states.get(offsets[i] + p) && expression[p].equals(ANY)) {
+                    states.set(offsets[i] + p + 1);
+                }
+            }
+        }
+        return states;
+    }
+
+    /**
+     * @param states the match states of a path; state p of an expression means its first p segments match the path
+     * @return the match states of the path extended by the field name
+     */
+    private BitSet advance(BitSet states, String name) {
+        BitSet next = new BitSet();
+        for (int i = 0; i < offsets.length; i++) {
+            String[] expression = expressions.get(i);
+            for (int p = 0; p < expression.length; p++) {
+                if (!states.get(offsets[i] + p)) {
+                    continue;
+                }
+                if (expression[p].equals(ANY)) {
+                    next.set(offsets[i] + p);
+                } else if (expression[p].equals(ONE) || expression[p].equals(name)) {
+                    next.set(offsets[i] + p + 1);
+                }
+            }
+        }
+        return closure(next);
+    }
+
+    // some extension of the path matches the expression
+    private boolean leadsTo(BitSet states, int i) {
+        int next = states.nextSetBit(offsets[i]);
+        return next >= 0 && next <= offsets[i] + expressions.get(i).length;
+    }
+
+    private boolean matches(BitSet states, int i) {
+        return states.get(offsets[i] + expressions.get(i).length);
+    }
+
+    private boolean isIncluded(BitSet states) {
+        for (int i = includes.size(); i < offsets.length; i++) {
+            if (matches(states, i)) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < includes.size(); i++) {
+            if (leadsTo(states, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // no expression can tell the paths below apart, they all share one node
+    private boolean includesAllBelow(BitSet states) {
+        for (int i = includes.size(); i < offsets.length; i++) {
+            if (leadsTo(states, i)) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < includes.size(); i++) {
+            String[] include = includes.get(i);
+            if (include[include.length - 1].equals(ANY) && matches(states, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path pathOf(BitSet states) {
+        Path path = paths.get(states);
+        return path != null ? path : paths.computeIfAbsent(states, s -> new Path(this, s, false));
+    }
+
+    @Override
+    public String toString() {
+        List<String> expressions = new ArrayList<>();
+        includes.forEach(include -> expressions.add(String.join(".", include)));
+        excludes.forEach(exclude -> expressions.add("!" + String.join(".", exclude)));
+        return "CopyScope" + expressions + " " + outOfScopePolicy;
+    }
+
+    /**
+     * One association path of a scope, resolved once and shared by all copies with the scope. A path only keeps its
+     * match states, which are advanced by one field name per child, so resolving a child does not depend on the depth.
+     * Paths in the same match states are one node, which bounds the nodes of a scope by its expressions.
+     */
+    static final class Path {
+
+        private final CopyScope scope;
+        private final BitSet states;
+        private final boolean included;
+        private final boolean allBelow;
+        private final ConcurrentMap<String, Path> children;
+
+        private Path(CopyScope scope, BitSet states, boolean root) {
+            this.scope = scope;
+            this.states = states;
+            this.included = root || scope.isIncluded(states);
+            this.allBelow = included && scope.includesAllBelow(states);
+            this.children = allBelow ? null : new ConcurrentHashMap<>();
+        }
+
+        boolean isIncluded() {
+            return included;
+        }
+
+        Path child(String name) {
+            if (allBelow) {
+                return this;
+            }
+            // resolved paths are read without locking the bin of the map
+            Path child = children.get(name);
+            if (child != null) {
+                return child;
+            }
+            return children.computeIfAbsent(name, n -> scope.pathOf(scope.advance(states, n)));
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<String[]> includes = new ArrayList<>();
+        private final List<String[]> excludes = new ArrayList<>();
+        private OutOfScopePolicy outOfScopePolicy = OutOfScopePolicy.SHARE;
+
+        private Builder() {
+        }
+
+        public Builder include(@NotNull String expression) {
+            includes.add(parse(expression));
+            return this;
+        }
+
+        public Builder exclude(@NotNull String expression) {
+            excludes.add(parse(expression));
+            return this;
+        }
+
+        public Builder outOfScopePolicy(@NotNull OutOfScopePolicy outOfScopePolicy) {
+            this.outOfScopePolicy = Objects.requireNonNull(outOfScopePolicy, "The out of scope policy must not be null");
+            return this;
+        }
+
+        public CopyScope build() {
+            return new CopyScope(this);
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class CopyService {
+
+    // the unmodifiable collections of the JDK, which hold no null and which the copyOf methods return as they are
+    private static final Set<Class<?>> UNMODIFIABLE_COLLECTIONS = Stream.of(
+                    List.of(), List.of(0), List.of(0, 1, 2), List.of(0, 1, 2).subList(0, 1),
+                    Set.of(), Set.of(0), Set.of(0, 1, 2), Map.of(), Map.of(0, 0))
+            .map(Object::getClass)
+            .collect(Collectors.toUnmodifiableSet());
+
+    public static <T> T copy(T old) {
+        return copy(old, null, CopyOptions.defaults());
+    }
+
+    public static <T> T copy(T old, @Nullable CopyContext copyContext) {
+        return copy(old, copyContext, CopyOptions.defaults());
+    }
+
+    public static <T> T copy(T old, @NotNull CopyOptions options) {
+        return copy(old, null, options);
+    }
+
+    public static <T> T copy(T old, @Nullable CopyContext copyContext, @NotNull CopyOptions options) {
+        CopySession session = new CopySession(options);
+        if (copyContext != null) {
+            //restore a bidirectional relationship with referential integrity
+            session.register(Hibernate.unproxy(copyContext.getOriginParentObject()), copyContext.getCopyOfParentObject());
+        }
+        return copy(old, session);
+    }
+
+    public static <T> T copy(T old, @NotNull CopySession session) {
+        LazyAssociations.prepare(old, session);
+        if (!session.isInstrumented() || old == null) {
+            return traverse(old, session);
+        }
+        long start = System.nanoTime();
+        int copiedBefore = session.size();
+        T copy = traverse(old, session);
+        session.listener().copyFinished(Hibernate.getClass(old), session.size() - copiedBefore, System.nanoTime() - start);
+        return copy;
+    }
+
+    /**
+     * @see #sync(Object, Object, CopyCorrelation, CopySession, EntityManager)
+     */
+    public static <T> SyncResult sync(@NotNull T source, @NotNull T copy, @NotNull CopyCorrelation correlation, @NotNull EntityManager entityManager) {
+        return sync(source, copy, correlation, new CopySession(), entityManager);
+    }
+
+    /**
+     * Updates an existing copy of the source in place instead of copying the source again, e.g. a long-lived draft
+     * after its template changed. The entities of the copy are found by the {@link CopyCorrelation} taken after the
+     * last copy or sync, through the entity manager as their originals are reached. Entities whose original has the
+     * same {@code @Version} as then are not written, not even loaded unless a new copy is linked to them; the
+     * associations of all entities are followed, as inverse collections change without a new version of their owner.
+     * Fields of changed entities are set where they differ, collections and maps are updated in place: elements are
+     * reused, added and removed. New originals are copied within the session, with its options.
+     * <p>
+     * Take a new correlation from the session once the new copies have identifiers. The traversal is recursive whatever
+     * the options say, and it neither copies lazily nor in parallel.
+     */
+    public static <T> SyncResult sync(@NotNull T source, @NotNull T copy, @NotNull CopyCorrelation correlation, @NotNull CopySession session,
+                                      @NotNull EntityManager entityManager) {
+        Objects.requireNonNull(source, "The source of the sync must not be null");
+        Objects.requireNonNull(copy, "The copy to sync must not be null");
+        Objects.requireNonNull(correlation, "The copy correlation must not be null");
+        Objects.requireNonNull(session, "The copy session must not be null");
+        Objects.requireNonNull(entityManager, "The entity manager must not be null");
+        return CopySync.sync(source, copy, correlation, session, entityManager);
+    }
+
+    /**
+     * Copies independent roots, lazily as the returned stream is consumed. Every root is copied on its own, as by
+     * {@link #copy(Object, CopyOptions)}; a session is reused per thread and cleared between the roots. The roots of a
+     * parallel stream are copied in parallel, they must then be fully initialized.
+     */
+    public static <T> Stream<T> copyAll(@NotNull Stream<T> roots, @NotNull CopyOptions options) {
+        Objects.requireNonNull(options, "The copy options must not be null");
+        return roots.map(new BatchCopy<>(options));
+    }
+
+    public static <T> Stream<T> copyAll(@NotNull Iterable<T> roots, @NotNull CopyOptions options) {
+        return copyAll(StreamSupport.stream(roots.spliterator(), false), options);
+    }
+
+    /**
+     * Copies independent roots and passes the copies to the sink in chunks, e.g. to persist them in JDBC batches.
+     * Only one chunk of originals and copies is referenced at a time. The sink is called on the calling thread, in the
+     * order of the roots; the roots of a parallel stream are copied in parallel per chunk, on the
+     * {@link CopyOptions#getForkJoinPool() pool} of the options.
+     *
+     * @param chunkSize the maximum number of copies passed to the sink at once
+     * @return the number of copied roots
+     */
+    public static <T> long copyAll(@NotNull Stream<T> roots, @NotNull CopyOptions options, int chunkSize, @NotNull Consumer<? super List<T>> sink) {
+        Objects.requireNonNull(options, "The copy options must not be null");
+        Objects.requireNonNull(sink, "The sink must not be null");
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be at least 1, but was " + chunkSize);
+        }
+        BatchCopy<T> batchCopy = new BatchCopy<>(options);
+        boolean parallel = roots.isParallel();
+        Iterator<T> iterator = roots.sequential().iterator();
+        long copied = 0;
+        while (iterator.hasNext()) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && iterator.hasNext()) {
+                chunk.add(iterator.next());
+            }
+            if (parallel) {
+                List<T> originals = chunk;
+                chunk = options.getForkJoinPool().submit(() -> originals.parallelStream().map(batchCopy).collect(Collectors.toList())).join();
+            } else {
+                chunk.replaceAll(batchCopy::apply);
+            }
+            sink.accept(chunk);
+            copied += chunk.size();
+        }
+        return copied;
+    }
+
+    public static <T> long copyAll(@NotNull Iterable<T> roots, @NotNull CopyOptions options, int chunkSize, @NotNull Consumer<? super List<T>> sink) {
+        return copyAll(StreamSupport.stream(roots.spliterator(), false), options, chunkSize, sink);
+    }
+
+    private static <T> T traverse(T old, CopySession session) {
+        if (session.getOptions().getTraversal() != CopyTraversal.RECURSIVE) {
+            return session.iterativeCopy().copy(old);
+        }
+        return copyRecursive(old, session);
+    }
+
+    static <T> T copyRecursive(T old, CopySession session) {
+        return copyRecursive(old, false, session.getOptions().getScope().root(), session);
+    }
+
+    /**
+     * @param deep  true to copy the value like an entity even if it does not implement {@link CopySupport}
+     * @param scope the association path of the value within the {@link CopyScope}
+     */
+    static <T> T copyRecursive(T old, boolean deep, CopyScope.Path scope, CopySession session) {
+        try {
+            //returns the original object without copying
+            // if the object does not implement CopySupport marker interface
+            if (!(old instanceof CopySupport) && !(deep && isDeepCopyable(old))) {
+                return old;
+            }
+
+            @SuppressWarnings("unchecked")
+            T original = (T) Hibernate.unproxy(old);
+            boolean instrumented = session.isInstrumented();
+            if (instrumented && original != old) {
+                session.listener().proxyUnwrapped(original.getClass());
+            }
+
+            // every entity is copied once per session, further references get the same copy
+            T existing = session.getCopy(original);
+            if (existing != null) {
+                return existing;
+            }
+
+            CopyPlan plan = CopyPlan.of(original.getClass());
+            T copy = plan.newInstance(original);
+            Object registered = session.registerIfAbsent(original, copy);
+            if (registered != copy) {
+                // copied by another thread in the meantime
+                @SuppressWarnings("unchecked")
+                T copyOfOtherThread = (T) registered;
+                return copyOfOtherThread;
+            }
+            long start = 0L;
+            if (instrumented) {
+                start = System.nanoTime();
+                if (isReflectiveFallback(plan, session.getOptions())) {
+                    session.listener().reflectiveFallback(plan.getType());
+                }
+            }
+
+            for (CopyPlan.FieldPlan fieldPlan : copyDirectFields(plan, original, copy, session.getOptions())) {
+                FieldAccessor accessor = fieldPlan.getAccessor();
+
+                // the original value of a reset field is not even read
+                if (fieldPlan.getMode() == FieldCopyMode.RESET) {
+                    accessor.set(copy, fieldPlan.getResetValue());
+                    continue;
+                }
+
+                // primitives and immutable values are never copied, they are transferred without boxing or any checks
+                if (fieldPlan.getKind() == CopyPlan.FieldKind.PRIMITIVE || fieldPlan.isImmutable()) {
+                    accessor.copy(original, copy);
+                    continue;
+                }
+
+                Object value = accessor.get(original);
+
+                // handle null values
+                if (value == null) {
+                    accessor.set(copy, null);
+                    continue;
+                }
+
+                // uninitialized associations are left as the new instance has them
+                if (isSkipped(value, session)) {
+                    continue;
+                }
+
+                if (fieldPlan.getMode() == FieldCopyMode.SHALLOW) {
+                    accessor.set(copy, shallowCopyOf(fieldPlan, value, session.getOptions()));
+                    continue;
+                }
+
+                // no element can be an entity, nothing to check per element
+                if (fieldPlan.hasImmutableElements()) {
+                    accessor.set(copy, copyOfValues(fieldPlan, value, session.getOptions()));
+                    if (instrumented) {
+                        reportCopied(session, plan.getType(), fieldPlan, value);
+                    }
+                    continue;
+                }
+
+                CopyScope.Path fieldScope = fieldPlan.isAssociation() ? scope.child(fieldPlan.getName()) : scope;
+                if (!fieldScope.isIncluded()) {
+                    if (session.getOptions().getScope().getOutOfScopePolicy() == OutOfScopePolicy.SHARE) {
+                        accessor.set(copy, sharedCopyOf(fieldPlan, value, session));
+                    }
+                    continue;
+                }
+
+                if (fieldPlan.getKind() == CopyPlan.FieldKind.MAP || fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION) {
+                    // the elements are copied on first access, listeners are notified then
+                    Object lazyCopy = LazyCopy.isApplicable(fieldPlan, value, session) ? LazyCopy.of(plan.getType(), fieldPlan, value, fieldScope, session) : null;
+                    if (lazyCopy != null) {
+                        accessor.set(copy, lazyCopy);
+                        continue;
+                    }
+                }
+
+                switch (fieldPlan.getKind()) {
+                    case MAP:
+                        try {
+                            accessor.set(copy, copyMap(fieldPlan, (Map<?, ?>) value, fieldScope, session));
+                            if (instrumented) {
+                                session.listener().mapCopied(plan.getType(), fieldPlan.getName(), ((Map<?, ?>) value).size());
+                            }
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error cloning Map Instance " + fieldPlan.getName(), e);
+                        }
+                        break;
+                    case COLLECTION:
+                        try {
+                            accessor.set(copy, copyCollection(fieldPlan, (Collection<?>) value, fieldScope, session));
+                            if (instrumented) {
+                                session.listener().collectionCopied(plan.getType(), fieldPlan.getName(), ((Collection<?>) value).size());
+                            }
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error while cloning collection for field " + fieldPlan.getName(), e);
+                        }
+                        break;
+                    case COPY_SUPPORT:
+                        try {
+                            accessor.set(copy, copyRecursive(value, fieldPlan.getMode() == FieldCopyMode.DEEP, fieldScope, session));
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error while cloning other copyable Entity " + fieldPlan.getName(), e);
+                        }
+                        break;
+                    default:
+                        // its any other non-copyable entity, this could be an enum, or an object which does not implement Copyable
+                        try {
+                            accessor.set(copy, fieldPlan.getMode() == FieldCopyMode.DEEP ? copyRecursive(value, true, fieldScope, session) : referenceOf(value, session));
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error while setting field " + fieldPlan.getName() + " on copy " + copy, e);
+                        }
+                }
+            }
+            if (instrumented) {
+                session.listener().entityCopied(plan.getType(), System.nanoTime() - start);
+            }
+            return copy;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Map copyMap(CopyPlan.FieldPlan fieldPlan, Map<?, ?> oldMapInstance, CopyScope.Path scope, CopySession session) throws IllegalAccessException {
+        Map newMapInstance = newMapInstance(fieldPlan.getName(), fieldPlan.getType(), oldMapInstance, session.getOptions().getCollectionFactory());
+        boolean deep = fieldPlan.getMode() == FieldCopyMode.DEEP;
+        if (ParallelCopy.isApplicable(oldMapInstance.size(), session)) {
+            Object[] entries = new Object[oldMapInstance.size() * 2];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : oldMapInstance.entrySet()) {
+                if (!isSkipped(entry.getKey(), session) && !isSkipped(entry.getValue(), session)) {
+                    entries[i++] = entry.getKey();
+                    entries[i++] = entry.getValue();
+                }
+            }
+            Object[] copies = ParallelCopy.copyAll(i < entries.length ? Arrays.copyOf(entries, i) : entries, deep, scope, session);
+            for (int e = 0; e < copies.length; e += 2) {
+                newMapInstance.put(copies[e], copies[e + 1]);
+            }
+            return newMapInstance;
+        }
+        oldMapInstance.forEach((oldKey, oldValue) -> {
+            if (isSkipped(oldKey, session) || isSkipped(oldValue, session)) {
+                return;
+            }
+            Object newKey = copyRecursive(oldKey, deep, scope, session);
+            Object newValue = copyRecursive(oldValue, deep, scope, session);
+            newMapInstance.put(newKey, newValue);
+        });
+        return newMapInstance;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Collection copyCollection(CopyPlan.FieldPlan fieldPlan, Collection<?> oldCollectionInstance, CopyScope.Path scope, CopySession session) {
+        Collection newCollectionInstance = newCollectionInstance(fieldPlan.getType(), oldCollectionInstance, session.getOptions().getCollectionFactory());
+        boolean deep = fieldPlan.getMode() == FieldCopyMode.DEEP;
+        if (ParallelCopy.isApplicable(oldCollectionInstance.size(), session)) {
+            // the copies keep the order of the original elements
+            Object[] elements = oldCollectionInstance.toArray();
+            if (session.getOptions().getLazyLoadPolicy().skipsUninitialized()) {
+                elements = Arrays.stream(elements).filter(e -> !isSkipped(e, session)).toArray();
+            }
+            newCollectionInstance.addAll(Arrays.asList(ParallelCopy.copyAll(elements, deep, scope, session)));
+            return newCollectionInstance;
+        }
+        for (Object o : oldCollectionInstance) {
+            if (isSkipped(o, session)) {
+                continue;
+            }
+            newCollectionInstance.add(copyRecursive(o, deep, scope, session));
+        }
+        return newCollectionInstance;
+    }
+
+    /**
+     * A shallow copy references the same value, collections and maps are new instances with the same elements.
+     */
+    static Object shallowCopyOf(CopyPlan.FieldPlan fieldPlan, Object value, CopyOptions options) throws IllegalAccessException {
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.MAP) {
+            Map<Object, Object> map = newMapInstance(fieldPlan.getName(), fieldPlan.getType(), (Map<?, ?>) value, options.getCollectionFactory());
+            map.putAll((Map<?, ?>) value);
+            return map;
+        }
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION) {
+            Collection<Object> collection = newCollectionInstance(fieldPlan.getType(), (Collection<?>) value, options.getCollectionFactory());
+            collection.addAll((Collection<?>) value);
+            return collection;
+        }
+        return value;
+    }
+
+    /**
+     * Copies a collection or map of immutable values as the {@link ValueCollectionPolicy} of the options says.
+     */
+    static Object copyOfValues(CopyPlan.FieldPlan fieldPlan, Object value, CopyOptions options) throws IllegalAccessException {
+        if (options.getValueCollectionPolicy() == ValueCollectionPolicy.SHARE) {
+            Object snapshot = unmodifiableSnapshotOf(fieldPlan.getType(), value);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return shallowCopyOf(fieldPlan, value, options);
+    }
+
+    /**
+     * @return an unmodifiable collection or map with the same values, the value itself if it is unmodifiable already,
+     * or null if no snapshot fits the declared type, keeps the order of the value or takes its values, i.e. a null
+     */
+    @Nullable
+    private static Object unmodifiableSnapshotOf(Class<?> declaredType, Object value) {
+        boolean unmodifiable = UNMODIFIABLE_COLLECTIONS.contains(value.getClass());
+        if (value instanceof List && declaredType.isAssignableFrom(List.class)) {
+            List<?> list = (List<?>) value;
+            return unmodifiable || !list.contains(null) ? List.copyOf(list) : null;
+        }
+        if (value instanceof Set && declaredType.isAssignableFrom(Set.class)) {
+            Set<?> set = (Set<?>) value;
+            return unmodifiable || (set.getClass() == HashSet.class && !set.contains(null)) ? Set.copyOf(set) : null;
+        }
+        if (value instanceof Map && declaredType.isAssignableFrom(Map.class)) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return unmodifiable || (map.getClass() == HashMap.class && !map.containsKey(null) && !map.containsValue(null)) ? Map.copyOf(map) : null;
+        }
+        return null;
+    }
+
+    static void reportCopied(CopySession session, Class<?> ownerType, CopyPlan.FieldPlan fieldPlan, Object value) {
+        if (value instanceof Map) {
+            session.listener().mapCopied(ownerType, fieldPlan.getName(), ((Map<?, ?>) value).size());
+        } else {
+            session.listener().collectionCopied(ownerType, fieldPlan.getName(), ((Collection<?>) value).size());
+        }
+    }
+
+    /**
+     * Like {@link #shallowCopyOf}, but entities copied already are replaced by their copies, see
+     * {@link OutOfScopePolicy#SHARE}.
+     */
+    static Object sharedCopyOf(CopyPlan.FieldPlan fieldPlan, Object value, CopySession session) throws IllegalAccessException {
+        CollectionFactory collectionFactory = session.getOptions().getCollectionFactory();
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.MAP) {
+            Map<Object, Object> map = newMapInstance(fieldPlan.getName(), fieldPlan.getType(), (Map<?, ?>) value, collectionFactory);
+            ((Map<?, ?>) value).forEach((k, v) -> map.put(referenceOf(k, session), referenceOf(v, session)));
+            return map;
+        }
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION) {
+            Collection<Object> collection = newCollectionInstance(fieldPlan.getType(), (Collection<?>) value, collectionFactory);
+            for (Object element : (Collection<?>) value) {
+                collection.add(referenceOf(element, session));
+            }
+            return collection;
+        }
+        return referenceOf(value, session);
+    }
+
+    /**
+     * @return true if the value may be copied like an entity with {@link CopyDeep}, i.e. it is no enum, array or JDK type
+     */
+    static boolean isDeepCopyable(Object value) {
+        if (value == null || value instanceof Enum || value.getClass().isArray()) {
+            return false;
+        }
+        Module module = value.getClass().getModule();
+        return !module.isNamed() || !(module.getName().startsWith("java.") || module.getName().startsWith("jdk."));
+    }
+
+    /**
+     * Copies the fields handled by the {@link CopyStrategy} directly and returns the ones left to the caller.
+     */
+    static List<CopyPlan.FieldPlan> copyDirectFields(CopyPlan plan, Object original, Object copy, CopyOptions options) {
+        if (options.getStrategy() == CopyStrategy.BYTECODE) {
+            BytecodeCopyPlan bytecodePlan = BytecodeCopyPlan.of(plan.getType());
+            bytecodePlan.copyDirectFields(original, copy);
+            return bytecodePlan.getRemainingFields();
+        }
+        return plan.getFields();
+    }
+
+    static boolean isReflectiveFallback(CopyPlan plan, CopyOptions options) {
+        return plan.isReflective() || (options.getStrategy() == CopyStrategy.BYTECODE && !BytecodeCopyPlan.of(plan.getType()).isComplete());
+    }
+
+    /**
+     * @return true if the value is an uninitialized proxy or collection which must not be copied, see
+     * {@link LazyLoadPolicy#SKIP}
+     */
+    static boolean isSkipped(Object value, CopySession session) {
+        return session.getOptions().getLazyLoadPolicy().skipsUninitialized() && !Hibernate.isInitialized(value);
+    }
+
+    /**
+     * A value which is not copied is referenced as-is. If it is an entity copied already, e.g. through a field of type
+     * Object, its copy is referenced instead.
+     */
+    static Object referenceOf(Object value, CopySession session) {
+        // an uninitialized proxy has not been copied, and looking it up would initialize it
+        Object copyOfValue = value instanceof CopySupport && Hibernate.isInitialized(value) ? session.getCopy(value) : null;
+        return copyOfValue != null ? copyOfValue : value;
+    }
+
+    public static Collection<?> getCollectionInstance(Field field, Object o) throws IllegalAccessException {
+        Object value = field.get(o);
+        if (value == null) {
+            return null;
+        } else if (!(value instanceof Collection)) {
+            return newCollectionInstance(field.getType(), List.of(), CollectionFactory.defaults());
+        } else {
+            return newCollectionInstance(field.getType(), (Collection<?>) value, CollectionFactory.defaults());
+        }
+    }
+
+    public static Map<?, ?> getNewMapInstance(Field field, Object o) throws IllegalAccessException {
+        Object value = field.get(o);
+        if (value == null) {
+            return null;
+        } else if (!(value instanceof Map)) {
+            return newMapInstance(field.getName(), field.getType(), Map.of(), CollectionFactory.defaults());
+        } else {
+            return newMapInstance(field.getName(), field.getType(), (Map<?, ?>) value, CollectionFactory.defaults());
+        }
+    }
+
+    static Collection<Object> newCollectionInstance(Class<?> type, Collection<?> source, CollectionFactory factory) {
+        if (!Collection.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Unsupported Collection Type " + type.getName() + " expected " + List.class.getName() + " or " + Set.class.getName());
+        }
+        return factory.newCollection(type, source);
+    }
+
+    static Map<Object, Object> newMapInstance(String name, Class<?> type, Map<?, ?> source, CollectionFactory factory) throws IllegalAccessException {
+        if (!Map.class.isAssignableFrom(type)) {
+            throw new IllegalAccessException("Unsupported type in " + name + " expected a type of " + Map.class.getName() + " but was " + type.getName());
+        }
+        return factory.newMap(type, source);
+    }
+
+    /**
+     * @see Instantiators
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T createNewInstanceOfSameType(T old) throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        Supplier<?> instantiator = Instantiators.of(old.getClass());
+        if (instantiator == null) {
+            throw new NoSuchMethodException("No instantiator and no no-arg constructor for " + old.getClass().getName());
+        }
+        return (T) instantiator.get();
+    }
+
+    public static List<Field> getAllFields(List<Field> fields, Class<?> type) {
+        fields.addAll(Arrays.asList(type.getDeclaredFields()));
+
+        if (type.getSuperclass() != null) {
+            getAllFields(fields, type.getSuperclass());
+        }
+
+        return fields;
+    }
+
+    public static boolean isCollection(Field field) {
+        return CopyPlan.FieldKind.of(field.getType()) == CopyPlan.FieldKind.COLLECTION;
+    }
+
+    public static boolean isMap(Field field) {
+        return CopyPlan.FieldKind.of(field.getType()) == CopyPlan.FieldKind.MAP;
+    }
+
+    public static boolean isOtherCopyableEntity(Field field) {
+        return CopyPlan.FieldKind.of(field.getType()) == CopyPlan.FieldKind.COPY_SUPPORT;
+    }
+
+    public static Predicate<Field> filterFieldsFromClass(Class<?> clazz) {
+        Set<Field> excludedFields = new HashSet<>(getAllFields(new ArrayList<>(), clazz));
+        return field -> !excludedFields.contains(field);
+    }
+}
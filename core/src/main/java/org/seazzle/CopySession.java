@@ -0,0 +1,216 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Remembers every entity copied so far, from original to copy, by identity. Within a session every original is copied
+ * exactly once: shared references point to the same copy, and references back to any entity already copied (a parent,
+ * a grandparent, ...) are rewired to its copy instead of being copied again.
+ * <p>
+ * A session is created for every {@link CopyService#copy} call. Pass the same session to several calls to copy
+ * multiple roots of one graph consistently. A session is only thread-safe if its options enable parallel copies; the
+ * {@link LazyCopy lazy copies} of a session may be accessed from any thread, they are copied one at a time.
+ */
+public final class CopySession {
+
+    // larger maps are replaced on clear, clearing would have to walk their whole table for every following root
+    private static final int RETAINED_CAPACITY = 1 << 12;
+
+    private final CopyOptions options;
+    // sequential copies
+    private Map<Object, Object> copies;
+    // parallel copies, keyed by identity as well
+    private final ConcurrentMap<IdentityKey, Object> concurrentCopies;
+    private final Set<String> uninitializedPaths = new LinkedHashSet<>();
+    private final CopyListener listener;
+    private final boolean instrumented;
+    @Nullable
+    private final IdGenerator idGenerator;
+    // copies registered by the caller rather than created by the session, e.g. of a CopyContext
+    private final Set<Object> provided = Collections.newSetFromMap(new IdentityHashMap<>());
+    @Nullable
+    private IterativeCopy iterativeCopy;
+    // not a monitor, copying may load from the database and would pin a virtual thread to its carrier
+    private final ReentrantLock lazyCopyLock = new ReentrantLock();
+
+    public CopySession() {
+        this(CopyOptions.defaults());
+    }
+
+    public CopySession(@NotNull CopyOptions options) {
+        this.options = Objects.requireNonNull(options, "When creating a copy session, the options must not be null");
+        this.listener = options.getListener();
+        this.instrumented = listener != CopyListener.NONE;
+        this.idGenerator = options.getIdGenerator();
+        if (options.isParallel()) {
+            this.copies = null;
+            this.concurrentCopies = new ConcurrentHashMap<>();
+        } else {
+            this.copies = new IdentityHashMap<>();
+            this.concurrentCopies = null;
+        }
+    }
+
+    public CopyOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * @return the copy of the given original, or null if it was not copied in this session
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T getCopy(@Nullable T original) {
+        if (original == null) {
+            return null;
+        }
+        Object key = Hibernate.unproxy(original);
+        return (T) (copies != null ? copies.get(key) : concurrentCopies.get(new IdentityKey(key)));
+    }
+
+    /**
+     * @return the number of entities copied in this session
+     */
+    public int size() {
+        return copies != null ? copies.size() : concurrentCopies.size();
+    }
+
+    /**
+     * @return the association paths left uninitialized with {@link LazyLoadPolicy#REPORT}, relative to the copied
+     * roots, e.g. {@code children} and {@code children.items}
+     */
+    public Set<String> getUninitializedPaths() {
+        return Collections.unmodifiableSet(uninitializedPaths);
+    }
+
+    /**
+     * The entities copied in this session, grouped by their class, in an order to persist them with as few JDBC batches
+     * as possible: the copies of a class follow the copies of the classes their to-one associations reference. Cycles
+     * between classes are broken arbitrarily. Copies which are no {@code @Entity}, e.g. deep copies of values, and the
+     * copy of the parent of a {@link CopyContext} are left out.
+     * <pre>
+     * CopySession session = new CopySession(CopyOptions.builder().idGenerator(IdGenerator.timeOrderedUuids()).build());
+     * Department copy = CopyService.copy(department, session);
+     * session.getCopiesInInsertOrder().values().forEach(copies -&gt; copies.forEach(entityManager::persist));
+     * </pre>
+     */
+    public Map<Class<?>, List<Object>> getCopiesInInsertOrder() {
+        return InsertOrder.of(copies != null ? copies.values() : concurrentCopies.values(), provided);
+    }
+
+    CopyListener listener() {
+        return listener;
+    }
+
+    // checked before measuring anything, so copies without listener do not pay for it
+    boolean isInstrumented() {
+        return instrumented;
+    }
+
+    // held while a lazy copy copies its elements into this session, whichever thread accessed it first
+    ReentrantLock lazyCopyLock() {
+        return lazyCopyLock;
+    }
+
+    // reused for every root copied with this session
+    IterativeCopy iterativeCopy() {
+        if (iterativeCopy == null) {
+            iterativeCopy = new IterativeCopy(this);
+        }
+        return iterativeCopy;
+    }
+
+    /**
+     * Forgets all copies and reported paths, so the session can copy the next independent root, see
+     * {@link CopyService#copyAll(java.util.stream.Stream, CopyOptions)}.
+     */
+    void clear() {
+        if (copies != null) {
+            if (copies.size() > RETAINED_CAPACITY) {
+                copies = new IdentityHashMap<>();
+            } else {
+                copies.clear();
+            }
+        } else {
+            concurrentCopies.clear();
+        }
+        provided.clear();
+        uninitializedPaths.clear();
+    }
+
+    /**
+     * Passes every original and its copy to the action.
+     */
+    void forEachCopy(BiConsumer<Object, Object> action) {
+        if (copies != null) {
+            copies.forEach(action);
+        } else {
+            concurrentCopies.forEach((key, copy) -> action.accept(key.object, copy));
+        }
+    }
+
+    void reportUninitialized(String path) {
+        uninitializedPaths.add(path);
+    }
+
+    /**
+     * Registers a copy the session did not create, it is taken as it is.
+     */
+    void register(Object original, Object copy) {
+        if (copies != null) {
+            copies.put(original, copy);
+        } else {
+            concurrentCopies.put(new IdentityKey(original), copy);
+        }
+        provided.add(copy);
+    }
+
+    /**
+     * Registers a new copy, and assigns its identifier if the options have an {@link IdGenerator}.
+     *
+     * @return the given copy, or the copy registered by another thread in the meantime
+     */
+    Object registerIfAbsent(Object original, Object copy) {
+        Object existing;
+        if (copies != null) {
+            copies.put(original, copy);
+            existing = null;
+        } else {
+            existing = concurrentCopies.putIfAbsent(new IdentityKey(original), copy);
+        }
+        if (existing != null) {
+            return existing;
+        }
+        if (idGenerator != null) {
+            EntityIds.assign(copy, idGenerator);
+        }
+        return copy;
+    }
+
+    private static final class IdentityKey {
+
+        private final Object object;
+
+        private IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.seazzle;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The copy references the same value as the original, e.g. shared master data, instead of a copy of it. Collections
+ * and maps are new instances with the same elements, as entities must not share them.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CopyShallow {
+}
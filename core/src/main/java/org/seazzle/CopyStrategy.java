@@ -0,0 +1,18 @@
+package org.seazzle;
+
+/**
+ * How the fields of an entity are transferred to its copy.
+ */
+public enum CopyStrategy {
+
+    /**
+     * Every field is read and written through the {@link FieldAccessor} of the {@link CopyPlan}.
+     */
+    REFLECTION,
+
+    /**
+     * Primitive and value-typed fields are copied by a class generated once per entity class, the remaining
+     * fields as with {@link #REFLECTION}. Falls back to {@link #REFLECTION} where no class can be generated.
+     */
+    BYTECODE
+}
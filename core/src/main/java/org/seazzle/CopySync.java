@@ -0,0 +1,319 @@
+package org.seazzle;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.*;
+
+/**
+ * Brings an existing copy up to date with its originals, see {@link CopyService#sync}. The graph of the originals is
+ * walked like a copy: an original with a {@link CopyCorrelation correlated} copy reuses it, other originals are copied.
+ * The existing copies are looked up by their identifiers as their originals are reached; the copy of a changed
+ * original is loaded, the copy of an unchanged one is only a reference and loaded when a new copy is linked to it.
+ * Fields are only written if their value differs, so Hibernate's dirty checking updates exactly the changed columns and
+ * rows.
+ */
+final class CopySync {
+
+    private final CopyCorrelation correlation;
+    private final CopySession session;
+    private final EntityManager entityManager;
+    // the existing copies by class and identifier which correspond to a reached original
+    private final Set<CopyCorrelation.Key> reached = new HashSet<>();
+    private final List<Object> created = new ArrayList<>();
+    private final Set<Object> createdCopies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Object> updated = new ArrayList<>();
+    private int unchanged;
+
+    private CopySync(CopyCorrelation correlation, CopySession session, EntityManager entityManager) {
+        this.correlation = correlation;
+        this.session = session;
+        this.entityManager = entityManager;
+    }
+
+    static SyncResult sync(Object source, Object copy, CopyCorrelation correlation, CopySession session, EntityManager entityManager) {
+        CopySync sync = new CopySync(correlation, session, entityManager);
+        Object original = Hibernate.unproxy(source);
+        Object existingCopy = Hibernate.unproxy(copy);
+        if (original.getClass() != existingCopy.getClass()) {
+            throw new IllegalArgumentException("A " + original.getClass().getName() + " cannot be synced into a " + existingCopy.getClass().getName());
+        }
+
+        CopyCorrelation.Entry entry = correlation.get(original);
+        Object copyId = EntityIds.idOf(existingCopy);
+        sync.reuse(original, existingCopy, copyId, entry == null || entry.isChanged(original));
+
+        // neither loaded nor initialized for the result
+        Session hibernateSession = entityManager.unwrap(Session.class);
+        List<Object> removed = new ArrayList<>();
+        correlation.forEach((key, correlated) -> {
+            if (!sync.reached.contains(new CopyCorrelation.Key(key.getType(), correlated.getCopyId()))) {
+                removed.add(hibernateSession.getReference(key.getType(), correlated.getCopyId()));
+            }
+        });
+        return new SyncResult(sync.created, sync.updated, removed, sync.unchanged);
+    }
+
+    /**
+     * @return the copy of the entity, the correlated existing one or a new one
+     */
+    private Object syncEntity(Object value) {
+        Object original = Hibernate.unproxy(value);
+        Object copy = session.getCopy(original);
+        if (copy != null) {
+            return copy;
+        }
+        CopyCorrelation.Entry entry = correlation.get(original);
+        if (entry != null) {
+            boolean changed = entry.isChanged(original);
+            // null if the copy was deleted since, then it is copied anew
+            copy = changed
+                    ? Hibernate.unproxy(entityManager.find(original.getClass(), entry.getCopyId()))
+                    : entityManager.getReference(original.getClass(), entry.getCopyId());
+            if (copy != null) {
+                reuse(original, copy, entry.getCopyId(), changed);
+                return copy;
+            }
+        }
+
+        try {
+            copy = CopyPlan.of(original.getClass()).newInstance(original);
+        } catch (ReflectiveOperationException e) {
+            throw new CopyException(original.getClass().getSimpleName() + "#" + EntityIds.idOf(original), e);
+        }
+        // gets its identifier here if the options have an IdGenerator
+        session.registerIfAbsent(original, copy);
+        created.add(copy);
+        createdCopies.add(copy);
+        syncFields(original, copy, true);
+        return copy;
+    }
+
+    private void reuse(Object original, Object copy, Object copyId, boolean changed) {
+        session.register(original, copy);
+        if (copyId != null) {
+            reached.add(new CopyCorrelation.Key(original.getClass().getName(), copyId));
+        }
+        if (syncFields(original, copy, changed)) {
+            updated.add(copy);
+        } else {
+            unchanged++;
+        }
+    }
+
+    /**
+     * @param copy    the copy, a reference if the original did not change
+     * @param changed false if the original did not change since the last copy or sync, then only the associations to
+     *                entities are followed, e.g. elements may have been added to an inverse collection without
+     *                incrementing the version of its owner, and the copy is only read and written if one of them
+     *                links a new copy
+     * @return true if a field of the copy was written
+     */
+    private boolean syncFields(Object original, Object copy, boolean changed) {
+        boolean written = false;
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(original.getClass()).getFields()) {
+            // the copy keeps its own value
+            if (fieldPlan.getMode() == FieldCopyMode.RESET) {
+                continue;
+            }
+            boolean entities = isEntityField(fieldPlan);
+            if (!entities && !changed) {
+                continue;
+            }
+            FieldAccessor accessor = fieldPlan.getAccessor();
+            Object value = accessor.get(original);
+            // uninitialized associations are left as the copy has them
+            if (value != null && CopyService.isSkipped(value, session)) {
+                continue;
+            }
+            if (!changed) {
+                // the existing copies already reference the existing copies of the other values
+                if (value == null || !linksCreatedCopy(fieldPlan, value)) {
+                    continue;
+                }
+                copy = Hibernate.unproxy(copy);
+            }
+            Object current = accessor.get(copy);
+            if (value == null) {
+                if (current != null) {
+                    accessor.set(copy, null);
+                    written = true;
+                }
+                continue;
+            }
+            try {
+                if (fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION) {
+                    written |= syncCollection(fieldPlan, (Collection<?>) value, copy, current);
+                } else if (fieldPlan.getKind() == CopyPlan.FieldKind.MAP) {
+                    written |= syncMap(fieldPlan, (Map<?, ?>) value, copy, current);
+                } else {
+                    Object target = syncElement(fieldPlan, value);
+                    if (!isSame(current, target)) {
+                        accessor.set(copy, target);
+                        written = true;
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new CopyException(original.getClass().getSimpleName() + "." + fieldPlan.getName(), e);
+            }
+        }
+        return written;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean syncCollection(CopyPlan.FieldPlan fieldPlan, Collection<?> source, Object copy, Object current) {
+        List<Object> desired = new ArrayList<>(source.size());
+        for (Object element : source) {
+            if (!CopyService.isSkipped(element, session)) {
+                desired.add(syncElement(fieldPlan, element));
+            }
+        }
+        if (!(current instanceof Collection)) {
+            Collection<Object> collection = CopyService.newCollectionInstance(fieldPlan.getType(), source, session.getOptions().getCollectionFactory());
+            collection.addAll(desired);
+            fieldPlan.getAccessor().set(copy, collection);
+            return true;
+        }
+
+        // updated in place, Hibernate only writes the difference
+        Collection<Object> target = (Collection<Object>) current;
+        if (target instanceof List) {
+            if (isEqual((List<Object>) target, desired)) {
+                return false;
+            }
+            target.clear();
+            target.addAll(desired);
+            return true;
+        }
+        boolean written = target.retainAll(desired.size() > 16 ? new HashSet<>(desired) : desired);
+        for (Object element : desired) {
+            if (!target.contains(element)) {
+                target.add(element);
+                written = true;
+            }
+        }
+        return written;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean syncMap(CopyPlan.FieldPlan fieldPlan, Map<?, ?> source, Object copy, Object current) throws IllegalAccessException {
+        Map<Object, Object> desired = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            if (!CopyService.isSkipped(entry.getKey(), session) && !CopyService.isSkipped(entry.getValue(), session)) {
+                desired.put(syncElement(fieldPlan, entry.getKey()), syncElement(fieldPlan, entry.getValue()));
+            }
+        }
+        if (!(current instanceof Map)) {
+            Map<Object, Object> map = CopyService.newMapInstance(fieldPlan.getName(), fieldPlan.getType(), source, session.getOptions().getCollectionFactory());
+            map.putAll(desired);
+            fieldPlan.getAccessor().set(copy, map);
+            return true;
+        }
+
+        Map<Object, Object> target = (Map<Object, Object>) current;
+        boolean written = target.keySet().retainAll(desired.keySet());
+        for (Map.Entry<Object, Object> entry : desired.entrySet()) {
+            if (!target.containsKey(entry.getKey()) || !isSame(target.get(entry.getKey()), entry.getValue())) {
+                target.put(entry.getKey(), entry.getValue());
+                written = true;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return the value of the field, or of one of its elements, as the copy references it
+     */
+    private Object syncElement(CopyPlan.FieldPlan fieldPlan, Object value) {
+        if (!fieldPlan.isTraversed() || value == null) {
+            return value;
+        }
+        if (value instanceof CopySupport) {
+            return syncEntity(value);
+        }
+        // values are copied anew, like a copy does
+        return fieldPlan.getMode() == FieldCopyMode.DEEP ? CopyService.copyRecursive(value, true, CopyScope.all().root(), session) : value;
+    }
+
+    /**
+     * Syncs the entities of an association of an unchanged original.
+     *
+     * @return true if one of them is a new copy, which the existing copy does not reference yet
+     */
+    private boolean linksCreatedCopy(CopyPlan.FieldPlan fieldPlan, Object value) {
+        boolean linked = false;
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!CopyService.isSkipped(entry.getKey(), session) && !CopyService.isSkipped(entry.getValue(), session)) {
+                    linked |= createdCopies.contains(syncElement(fieldPlan, entry.getKey()));
+                    linked |= createdCopies.contains(syncElement(fieldPlan, entry.getValue()));
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (!CopyService.isSkipped(element, session)) {
+                    linked |= createdCopies.contains(syncElement(fieldPlan, element));
+                }
+            }
+        } else {
+            linked = createdCopies.contains(syncElement(fieldPlan, value));
+        }
+        return linked;
+    }
+
+    private static boolean isEntityField(CopyPlan.FieldPlan fieldPlan) {
+        if (!fieldPlan.isTraversed()) {
+            return false;
+        }
+        if (fieldPlan.getKind() == CopyPlan.FieldKind.COPY_SUPPORT) {
+            return true;
+        }
+        return (fieldPlan.getKind() == CopyPlan.FieldKind.COLLECTION || fieldPlan.getKind() == CopyPlan.FieldKind.MAP)
+                && fieldPlan.isAssociation() && !fieldPlan.hasImmutableElements();
+    }
+
+    private static boolean isEqual(List<Object> list, List<Object> other) {
+        if (list.size() != other.size()) {
+            return false;
+        }
+        Iterator<Object> iterator = list.iterator();
+        for (Object element : other) {
+            if (!isSame(iterator.next(), element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Entities are compared by identity, or by their class and identifier if one of them is a lazy proxy, e.g. the
+     * reference to an existing copy, so it is not initialized just for the comparison.
+     *
+     * @param current the value the copy references
+     * @param target  the value the copy should reference
+     */
+    private static boolean isSame(Object current, Object target) {
+        if (!(target instanceof CopySupport)) {
+            return Objects.equals(current, target);
+        }
+        if (current == target) {
+            return true;
+        }
+        if (!(current instanceof HibernateProxy) && !(target instanceof HibernateProxy)) {
+            return false;
+        }
+        Object currentId = EntityIds.idOf(current);
+        if (currentId == null || !currentId.equals(EntityIds.idOf(target))) {
+            return false;
+        }
+        Class<?> currentType = typeOf(current);
+        Class<?> targetType = typeOf(target);
+        return currentType.isAssignableFrom(targetType) || targetType.isAssignableFrom(currentType);
+    }
+
+    private static Class<?> typeOf(Object entity) {
+        return entity instanceof HibernateProxy ? ((HibernateProxy) entity).getHibernateLazyInitializer().getPersistentClass() : entity.getClass();
+    }
+}
@@ -0,0 +1,23 @@
+package org.seazzle;
+
+/**
+ * The order in which the entities of a graph are visited.
+ */
+public enum CopyTraversal {
+
+    /**
+     * Every nested entity is copied by a recursive call, the stack grows with the depth of the graph.
+     */
+    RECURSIVE,
+
+    /**
+     * Entities are copied from an explicit work stack, depth first, so the depth of the graph is not limited by the
+     * thread stack. Errors are reported as a {@link CopyException} with the path of the failing entity.
+     */
+    DEPTH_FIRST,
+
+    /**
+     * Like {@link #DEPTH_FIRST}, but from a work queue, level by level.
+     */
+    BREADTH_FIRST
+}
@@ -0,0 +1,120 @@
+package org.seazzle;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * See {@link CollectionFactory#defaults()}. Sources of other types, e.g. Hibernate's persistent collections, are
+ * copied into insertion ordered targets, so their iteration order is kept as well.
+ */
+final class DefaultCollectionFactory implements CollectionFactory {
+
+    static final DefaultCollectionFactory INSTANCE = new DefaultCollectionFactory();
+
+    private DefaultCollectionFactory() {
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Collection<Object> newCollection(Class<?> declaredType, Collection<?> source) {
+        int size = source.size();
+        Collection<Object> target;
+        if (source instanceof SortedSet) {
+            target = new TreeSet<>((Comparator<Object>) ((SortedSet) source).comparator());
+        } else if (source instanceof EnumSet) {
+            // elements are constants, the copy only needs the element type
+            target = EnumSet.copyOf((EnumSet) source);
+            target.clear();
+        } else if (source.getClass() == HashSet.class) {
+            target = new HashSet<>(capacityOf(size));
+        } else if (source instanceof Set) {
+            target = new LinkedHashSet<>(capacityOf(size));
+        } else if (source instanceof LinkedList) {
+            target = new LinkedList<>();
+        } else if (source instanceof PriorityQueue) {
+            target = new PriorityQueue<>(Math.max(1, size), (Comparator<Object>) ((PriorityQueue) source).comparator());
+        } else if (source instanceof Queue) {
+            target = new ArrayDeque<>(size);
+        } else {
+            target = new ArrayList<>(size);
+        }
+        return declaredType.isInstance(target) ? target : newCollection(declaredType, size);
+    }
+
+    private static Collection<Object> newCollection(Class<?> declaredType, int size) {
+        if (declaredType.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>(size);
+        }
+        if (declaredType.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<>();
+        }
+        if (declaredType.isAssignableFrom(HashSet.class)) {
+            return new HashSet<>(capacityOf(size));
+        }
+        if (declaredType.isAssignableFrom(ArrayDeque.class)) {
+            return new ArrayDeque<>(size);
+        }
+        throw new IllegalArgumentException("Unsupported Collection Type " + declaredType.getName());
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Map<Object, Object> newMap(Class<?> declaredType, Map<?, ?> source) {
+        int size = source.size();
+        Map<Object, Object> target;
+        if (source instanceof ConcurrentNavigableMap) {
+            target = new ConcurrentSkipListMap<>((Comparator<Object>) ((SortedMap) source).comparator());
+        } else if (source instanceof SortedMap) {
+            target = new TreeMap<>((Comparator<Object>) ((SortedMap) source).comparator());
+        } else if (source instanceof ConcurrentMap) {
+            target = new ConcurrentHashMap<>(capacityOf(size));
+        } else if (source instanceof EnumMap) {
+            // keys are constants, the copy only needs the key type
+            target = new EnumMap((EnumMap) source);
+            target.clear();
+        } else {
+            Class<? extends Enum> keyType = enumKeyTypeOf(source);
+            if (keyType != null) {
+                target = new EnumMap(keyType);
+            } else if (source.getClass() == HashMap.class) {
+                target = new HashMap<>(capacityOf(size));
+            } else {
+                target = new LinkedHashMap<>(capacityOf(size));
+            }
+        }
+        return declaredType.isInstance(target) ? target : newMap(declaredType, size);
+    }
+
+    private static Map<Object, Object> newMap(Class<?> declaredType, int size) {
+        if (declaredType.isAssignableFrom(HashMap.class)) {
+            return new HashMap<>(capacityOf(size));
+        }
+        if (declaredType.isAssignableFrom(TreeMap.class)) {
+            return new TreeMap<>();
+        }
+        throw new IllegalArgumentException("Unsupported Map Type " + declaredType.getName());
+    }
+
+    /**
+     * @return the enum type of the keys if the source is not empty and all keys are constants of the same enum
+     */
+    @SuppressWarnings("rawtypes")
+    private static Class<? extends Enum> enumKeyTypeOf(Map<?, ?> source) {
+        Class<? extends Enum> keyType = null;
+        for (Object key : source.keySet()) {
+            if (!(key instanceof Enum) || (keyType != null && keyType != ((Enum<?>) key).getDeclaringClass())) {
+                return null;
+            }
+            keyType = ((Enum<?>) key).getDeclaringClass();
+        }
+        return keyType;
+    }
+
+    // large enough to take all elements without rehashing at the default load factor
+    private static int capacityOf(int size) {
+        return (int) Math.ceil(size / 0.75);
+    }
+}
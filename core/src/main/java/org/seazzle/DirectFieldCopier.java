@@ -0,0 +1,10 @@
+package org.seazzle;
+
+/**
+ * Copies a fixed set of fields from one instance to another. Implementations are generated at runtime by
+ * {@link BytecodeCopyPlan}, this type is only public so that the generated classes can implement it.
+ */
+public interface DirectFieldCopier {
+
+    void copy(Object source, Object target);
+}
@@ -0,0 +1,100 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Reads the identifiers and versions of entities, and assigns the identifiers of an {@link IdGenerator} to the copies,
+ * through the {@code @Id} and {@code @Version} fields of their class.
+ */
+final class EntityIds {
+
+    private static final ClassValue<Optional<FieldAccessor>> ID_FIELDS = new ClassValue<>() {
+        @Override
+        protected Optional<FieldAccessor> computeValue(Class<?> type) {
+            return Optional.ofNullable(fieldOf(type, Id.class));
+        }
+    };
+
+    // Hibernate generates these on persist, replacing or rejecting an assigned identifier
+    private static final ClassValue<Boolean> GENERATED_IDS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+                if (field.isAnnotationPresent(Id.class) && field.isAnnotationPresent(GeneratedValue.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private static final ClassValue<Optional<FieldAccessor>> VERSION_FIELDS = new ClassValue<>() {
+        @Override
+        protected Optional<FieldAccessor> computeValue(Class<?> type) {
+            return Optional.ofNullable(fieldOf(type, Version.class));
+        }
+    };
+
+    private EntityIds() {
+    }
+
+    /**
+     * Sets a new identifier if the copy has an {@code @Id} field and the new instance did not set it already.
+     *
+     * @throws IllegalStateException if the identifier is a {@code @GeneratedValue}, which would not survive persist
+     */
+    static void assign(Object copy, IdGenerator generator) {
+        if (GENERATED_IDS.get(copy.getClass())) {
+            throw new IllegalStateException("The identifier of " + copy.getClass().getName() + " is a @GeneratedValue, Hibernate does not keep an assigned one on persist;"
+                    + " map an assigned @Id like org.seazzle.base.BaseEntityWithAssignableId to use an IdGenerator");
+        }
+        FieldAccessor accessor = ID_FIELDS.get(copy.getClass()).orElse(null);
+        if (accessor != null && accessor.get(copy) == null) {
+            accessor.set(copy, generator.nextId(copy));
+        }
+    }
+
+    /**
+     * @return the identifier of the entity, or null if it has none (yet) or no {@code @Id} field; a proxy is not
+     * initialized for it
+     */
+    @Nullable
+    static Object idOf(Object entity) {
+        if (entity instanceof HibernateProxy) {
+            return ((HibernateProxy) entity).getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        FieldAccessor accessor = ID_FIELDS.get(entity.getClass()).orElse(null);
+        return accessor != null ? accessor.get(entity) : null;
+    }
+
+    /**
+     * @return the version of the entity, or null if it has no {@code @Version} field
+     */
+    @Nullable
+    static Object versionOf(Object entity) {
+        FieldAccessor accessor = VERSION_FIELDS.get(entity.getClass()).orElse(null);
+        return accessor != null ? accessor.get(entity) : null;
+    }
+
+    @Nullable
+    private static FieldAccessor fieldOf(Class<?> type, Class<? extends Annotation> annotation) {
+        for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+            // a primitive identifier cannot tell whether it was assigned
+            if (field.isAnnotationPresent(annotation) && !Modifier.isStatic(field.getModifiers()) && !(annotation == Id.class && field.getType().isPrimitive())) {
+                field.setAccessible(true);
+                return FieldAccessor.of(field);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,207 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.Transient;
+import jakarta.validation.constraints.NotNull;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The associations a copy of an entity class will touch, derived from the {@link CopyPlan}s of the class and the
+ * entities reachable from it. Used to load a whole aggregate before copying it, as an {@link EntityGraph}:
+ * <pre>
+ * var graph = FetchPlan.of(Department.class).toEntityGraph(entityManager);
+ * var department = entityManager.find(Department.class, id, Map.of("jakarta.persistence.fetchgraph", graph));
+ * </pre>
+ * or as a query with join fetches, see {@link #toQuery()}.
+ * <p>
+ * An association is followed if its target type is an {@link Entity}, up to the max depth, except for the inverse of the
+ * association it was reached through ({@code mappedBy}): the back-reference to a parent is not fetched again, while
+ * self-referential aggregates, e.g. the children of a tree node, are fetched level by level. Hibernate fetches at most
+ * one bag ({@code List} without order column) per query, plans with several bags need sets or separate queries.
+ */
+public final class FetchPlan {
+
+    public static final int DEFAULT_MAX_DEPTH = 5;
+
+    private static final ClassValue<ConcurrentMap<Integer, FetchPlan>> PLANS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Integer, FetchPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<?> rootType;
+    private final int maxDepth;
+    private final List<String> paths;
+
+    private FetchPlan(Class<?> rootType, int maxDepth) {
+        this.rootType = rootType;
+        this.maxDepth = maxDepth;
+
+        List<String> resolved = new ArrayList<>();
+        collectPaths(rootType, "", 0, null, null, resolved);
+        this.paths = List.copyOf(resolved);
+    }
+
+    public static FetchPlan of(@NotNull Class<?> rootType) {
+        return of(rootType, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param maxDepth the maximum number of associations on a path, e.g. 2 for {@code employees.address}
+     */
+    public static FetchPlan of(@NotNull Class<?> rootType, int maxDepth) {
+        Objects.requireNonNull(rootType, "The root type of a fetch plan must not be null");
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("The max depth of a fetch plan must be at least 1, but was " + maxDepth);
+        }
+        ConcurrentMap<Integer, FetchPlan> plans = PLANS.get(rootType);
+        FetchPlan plan = plans.get(maxDepth);
+        if (plan != null) {
+            return plan;
+        }
+        // resolved outside of the map, it walks the copy plans of all reachable classes
+        plan = new FetchPlan(rootType, maxDepth);
+        FetchPlan existing = plans.putIfAbsent(maxDepth, plan);
+        return existing != null ? existing : plan;
+    }
+
+    /**
+     * @param via the association the type was reached through, null for the root
+     */
+    private void collectPaths(Class<?> type, String path, int depth, @Nullable Class<?> viaOwner, @Nullable CopyPlan.FieldPlan via, List<String> resolved) {
+        if (depth >= maxDepth) {
+            return;
+        }
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(type).getFields()) {
+            CopyPlan.FieldKind kind = fieldPlan.getKind();
+            if ((kind != CopyPlan.FieldKind.COPY_SUPPORT && kind != CopyPlan.FieldKind.COLLECTION && kind != CopyPlan.FieldKind.MAP) || !fieldPlan.isTraversed()) {
+                continue;
+            }
+            Class<?> target = fieldPlan.getElementType();
+            if (!target.isAnnotationPresent(Entity.class) || isTransient(fieldPlan) || (via != null && isInverse(viaOwner, via, type, fieldPlan))) {
+                continue;
+            }
+            String fieldPath = path.isEmpty() ? fieldPlan.getName() : path + "." + fieldPlan.getName();
+            resolved.add(fieldPath);
+            collectPaths(target, fieldPath, depth + 1, type, fieldPlan, resolved);
+        }
+    }
+
+    private static boolean isTransient(CopyPlan.FieldPlan fieldPlan) {
+        return fieldPlan.getField() != null && fieldPlan.getField().isAnnotationPresent(Transient.class);
+    }
+
+    /**
+     * @return true if the association of the owner is the other side of the association {@code via} of the
+     * {@code viaOwner}, which leads to the owner
+     */
+    private static boolean isInverse(Class<?> viaOwner, CopyPlan.FieldPlan via, Class<?> owner, CopyPlan.FieldPlan fieldPlan) {
+        Class<?> target = fieldPlan.getElementType();
+        if (!target.isAssignableFrom(viaOwner) && !viaOwner.isAssignableFrom(target)) {
+            return false;
+        }
+        return fieldPlan.getName().equals(mappedByOf(viaOwner, via)) || via.getName().equals(mappedByOf(owner, fieldPlan));
+    }
+
+    @Nullable
+    private static String mappedByOf(Class<?> owner, CopyPlan.FieldPlan fieldPlan) {
+        Field field = fieldPlan.getField() != null ? fieldPlan.getField() : declaredField(owner, fieldPlan.getName());
+        if (field == null) {
+            return null;
+        }
+        String mappedBy = null;
+        if (field.isAnnotationPresent(OneToMany.class)) {
+            mappedBy = field.getAnnotation(OneToMany.class).mappedBy();
+        } else if (field.isAnnotationPresent(OneToOne.class)) {
+            mappedBy = field.getAnnotation(OneToOne.class).mappedBy();
+        } else if (field.isAnnotationPresent(ManyToMany.class)) {
+            mappedBy = field.getAnnotation(ManyToMany.class).mappedBy();
+        }
+        return mappedBy == null || mappedBy.isEmpty() ? null : mappedBy;
+    }
+
+    // plans of generated copiers have no reflected fields, their annotations are read from the class
+    @Nullable
+    private static Field declaredField(Class<?> owner, String name) {
+        for (Field field : CopyService.getAllFields(new ArrayList<>(), owner)) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    public Class<?> getRootType() {
+        return rootType;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the association paths to fetch, parents before their children, e.g. {@code employees} and
+     * {@code employees.address}
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return a new entity graph of the root type with a subgraph per path, to be used as fetch or load graph
+     */
+    @SuppressWarnings("unchecked")
+    public <T> EntityGraph<T> toEntityGraph(@NotNull EntityManager entityManager) {
+        EntityGraph<T> graph = entityManager.createEntityGraph((Class<T>) rootType);
+        Map<String, Subgraph<?>> subgraphs = new HashMap<>();
+        for (String path : paths) {
+            int lastDot = path.lastIndexOf('.');
+            String attribute = path.substring(lastDot + 1);
+            Subgraph<?> subgraph = lastDot < 0
+                    ? graph.addSubgraph(attribute)
+                    : subgraphs.get(path.substring(0, lastDot)).addSubgraph(attribute);
+            subgraphs.put(path, subgraph);
+        }
+        return graph;
+    }
+
+    /**
+     * @return a query selecting the root type as {@code r} with a join fetch per path, e.g.
+     * {@code select r from Department r left join fetch r.employees j1 left join fetch j1.address j2}; append a where
+     * clause to select the roots
+     */
+    public String toQuery() {
+        StringBuilder query = new StringBuilder("select r from ").append(entityName(rootType)).append(" r");
+        Map<String, String> aliases = new HashMap<>();
+        for (String path : paths) {
+            int lastDot = path.lastIndexOf('.');
+            String parentAlias = lastDot < 0 ? "r" : aliases.get(path.substring(0, lastDot));
+            String alias = "j" + (aliases.size() + 1);
+            aliases.put(path, alias);
+            query.append(" left join fetch ").append(parentAlias).append('.').append(path.substring(lastDot + 1)).append(' ').append(alias);
+        }
+        return query.toString();
+    }
+
+    private static String entityName(Class<?> type) {
+        Entity entity = type.getAnnotation(Entity.class);
+        return entity != null && !entity.name().isEmpty() ? entity.name() : type.getSimpleName();
+    }
+
+    @Override
+    public String toString() {
+        return rootType.getSimpleName() + paths;
+    }
+}
@@ -0,0 +1,30 @@
+package org.seazzle;
+
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes one field of an entity. Accessors are resolved once per field and kept in the {@link CopyPlan}.
+ */
+public interface FieldAccessor {
+
+    Object get(Object target);
+
+    void set(Object target, Object value);
+
+    /**
+     * Transfers the field value from source to target. Primitive values are not boxed on the way.
+     */
+    void copy(Object source, Object target);
+
+    /**
+     * Resolves an accessor based on method handles, and falls back to plain reflection if the declaring class
+     * cannot be looked up privately. The field must already be accessible.
+     */
+    static FieldAccessor of(Field field) {
+        try {
+            return MethodHandleFieldAccessor.create(field);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return new ReflectiveFieldAccessor(field);
+        }
+    }
+}
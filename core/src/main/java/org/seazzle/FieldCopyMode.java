@@ -0,0 +1,27 @@
+package org.seazzle;
+
+/**
+ * How a field of a {@link CopyPlan} is copied, see the copy annotations. Ignored fields are not part of the plan.
+ */
+public enum FieldCopyMode {
+
+    /**
+     * Entities, collections and maps are copied, anything else is referenced.
+     */
+    COPY,
+
+    /**
+     * @see CopyDeep
+     */
+    DEEP,
+
+    /**
+     * @see CopyShallow
+     */
+    SHALLOW,
+
+    /**
+     * @see CopyReset
+     */
+    RESET
+}
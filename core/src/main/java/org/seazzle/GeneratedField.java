@@ -0,0 +1,102 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A field accessor of a generated {@link Copier}, backed by plain getter/setter code instead of reflection.
+ */
+public final class GeneratedField<T> implements FieldAccessor {
+
+    private final String name;
+    private final Class<?> type;
+    private final Function<T, Object> getter;
+    private final BiConsumer<T, Object> setter;
+    @Nullable
+    private final BiConsumer<T, T> copier;
+    private final FieldCopyMode mode;
+    private final List<Class<?>> typeArguments;
+
+    private GeneratedField(String name, Class<?> type, Function<T, Object> getter, BiConsumer<T, Object> setter, @Nullable BiConsumer<T, T> copier, FieldCopyMode mode, List<Class<?>> typeArguments) {
+        this.name = Objects.requireNonNull(name, "The name of a generated field must not be null");
+        this.type = Objects.requireNonNull(type, "The type of a generated field must not be null");
+        this.getter = Objects.requireNonNull(getter, "The getter of a generated field must not be null");
+        this.setter = Objects.requireNonNull(setter, "The setter of a generated field must not be null");
+        this.copier = copier;
+        this.mode = Objects.requireNonNull(mode, "The copy mode of a generated field must not be null");
+        this.typeArguments = typeArguments;
+    }
+
+    public static <T> GeneratedField<T> of(String name, Class<?> type, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+        return new GeneratedField<>(name, type, getter, setter, null, FieldCopyMode.COPY, List.of());
+    }
+
+    /**
+     * For primitive fields, the copier transfers the value from source to target without boxing.
+     */
+    public static <T> GeneratedField<T> of(String name, Class<?> type, Function<T, Object> getter, BiConsumer<T, Object> setter, BiConsumer<T, T> copier) {
+        return new GeneratedField<>(name, type, getter, setter, Objects.requireNonNull(copier, "The copier of a generated field must not be null"), FieldCopyMode.COPY, List.of());
+    }
+
+    /**
+     * @return this field with the mode of its copy annotation
+     */
+    public GeneratedField<T> withMode(FieldCopyMode mode) {
+        return new GeneratedField<>(name, type, getter, setter, copier, mode, typeArguments);
+    }
+
+    /**
+     * @return this field with the erased type arguments of its declared type, e.g. the element type of a collection or
+     * the key and value types of a map
+     */
+    public GeneratedField<T> withTypeArguments(Class<?>... typeArguments) {
+        return new GeneratedField<>(name, type, getter, setter, copier, mode, List.of(typeArguments));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public FieldCopyMode getMode() {
+        return mode;
+    }
+
+    public List<Class<?>> getTypeArguments() {
+        return typeArguments;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object get(Object target) {
+        return getter.apply((T) target);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void set(Object target, Object value) {
+        setter.accept((T) target, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void copy(Object source, Object target) {
+        if (copier != null) {
+            copier.accept((T) source, (T) target);
+        } else {
+            setter.accept((T) target, getter.apply((T) source));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedField[" + name + "]";
+    }
+}
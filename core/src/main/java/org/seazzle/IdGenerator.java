@@ -0,0 +1,33 @@
+package org.seazzle;
+
+import java.util.UUID;
+
+/**
+ * Generates the identifiers of the copies while they are created, see {@link CopyOptions.Builder#idGenerator}. The
+ * identifier is set on every copied entity with an {@code @Id} field which is still null on the new instance, so the
+ * copies can be inserted in large batches without Hibernate generating one identifier per entity on persist.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @param entity the new, still empty copy
+     * @return the identifier of the copy, of the type of its {@code @Id} field
+     */
+    Object nextId(Object entity);
+
+    /**
+     * Version 7 UUIDs: they start with the current time in milliseconds and increase monotonically within this JVM,
+     * so the copies of one graph are next to each other in the index of their primary key.
+     */
+    static IdGenerator timeOrderedUuids() {
+        return TimeOrderedUuids.INSTANCE;
+    }
+
+    /**
+     * Version 4 UUIDs, as generated by Hibernate's {@code UUIDGenerator}.
+     */
+    static IdGenerator randomUuids() {
+        return entity -> UUID.randomUUID();
+    }
+}
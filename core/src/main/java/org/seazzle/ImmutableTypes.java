@@ -0,0 +1,96 @@
+package org.seazzle;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The types whose instances never change, so a copy may reference them instead of copying them. A field of such a type
+ * is resolved by its {@link CopyPlan} to a plain transfer of the reference, without classifying or checking the value.
+ * <p>
+ * Known are the primitives and their wrappers, {@code String}, {@code BigDecimal}, {@code BigInteger}, {@code UUID},
+ * {@code URI}, {@code Locale}, {@code Currency}, the final classes of {@code java.time}, enums, and records whose
+ * components are all immutable. Further types are registered with {@link #register(Class[])}, before the first copy
+ * of a class with fields of that type: plans resolved already are not changed. Types implementing
+ * {@link CopySupport} are never immutable.
+ */
+public final class ImmutableTypes {
+
+    private static final Set<Class<?>> KNOWN = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class, URI.class, Locale.class,
+            Currency.class);
+
+    private static final ClassValue<Boolean> BUILT_IN = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isBuiltIn(type, new HashSet<>());
+        }
+    };
+
+    // replaced on every registration, read without locking
+    private static final AtomicReference<Set<Class<?>>> REGISTERED = new AtomicReference<>(Set.of());
+
+    private ImmutableTypes() {
+    }
+
+    /**
+     * @return true if instances of the type are known to never change
+     */
+    public static boolean isImmutable(@NotNull Class<?> type) {
+        return BUILT_IN.get(type) || REGISTERED.get().contains(type);
+    }
+
+    /**
+     * Registers types whose instances never change, e.g. value objects of the domain. Subclasses are not covered, so
+     * the types should be final.
+     */
+    public static void register(@NotNull Class<?>... types) {
+        for (Class<?> type : types) {
+            Objects.requireNonNull(type, "An immutable type must not be null");
+            if (CopySupport.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException(type.getName() + " implements " + CopySupport.class.getSimpleName() + " and is copied, it cannot be immutable");
+            }
+        }
+        REGISTERED.updateAndGet(registered -> {
+            Set<Class<?>> updated = new HashSet<>(registered);
+            updated.addAll(Arrays.asList(types));
+            return Set.copyOf(updated);
+        });
+    }
+
+    /**
+     * @param visiting the records being checked, a record referencing itself is immutable if its other components are
+     */
+    private static boolean isBuiltIn(Class<?> type, Set<Class<?>> visiting) {
+        if (CopySupport.class.isAssignableFrom(type)) {
+            return false;
+        }
+        if (type.isPrimitive() || type.isEnum() || KNOWN.contains(type)) {
+            return true;
+        }
+        if (type.getPackageName().equals("java.time") && Modifier.isFinal(type.getModifiers())) {
+            return true;
+        }
+        if (!type.isRecord()) {
+            return false;
+        }
+        if (!visiting.add(type)) {
+            // checked further up
+            return true;
+        }
+        for (RecordComponent component : type.getRecordComponents()) {
+            Class<?> componentType = component.getType();
+            if (!isBuiltIn(componentType, visiting) && !REGISTERED.get().contains(componentType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
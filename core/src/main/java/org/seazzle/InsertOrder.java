@@ -0,0 +1,83 @@
+package org.seazzle;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToOne;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Groups copied entities by their class, ordered so that every class comes after the classes its to-one associations
+ * reference, see {@link CopySession#getCopiesInInsertOrder()}.
+ */
+final class InsertOrder {
+
+    // the entity types the foreign keys of a class reference
+    private static final ClassValue<List<Class<?>>> REFERENCES = new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return referencesOf(type);
+        }
+    };
+
+    private InsertOrder() {
+    }
+
+    /**
+     * @param provided copies which were not created by the session, they are left out
+     */
+    static Map<Class<?>, List<Object>> of(Collection<Object> copies, Set<Object> provided) {
+        Map<Class<?>, List<Object>> byType = new HashMap<>();
+        for (Object copy : copies) {
+            if (copy.getClass().isAnnotationPresent(Entity.class) && !provided.contains(copy)) {
+                byType.computeIfAbsent(copy.getClass(), type -> new ArrayList<>()).add(copy);
+            }
+        }
+        // by name, so classes independent of each other are always in the same order
+        List<Class<?>> types = new ArrayList<>(byType.keySet());
+        types.sort(Comparator.comparing(Class::getName));
+
+        Map<Class<?>, List<Object>> ordered = new LinkedHashMap<>();
+        Set<Class<?>> visiting = new HashSet<>();
+        for (Class<?> type : types) {
+            visit(type, types, byType, ordered, visiting);
+        }
+        return ordered;
+    }
+
+    private static void visit(Class<?> type, List<Class<?>> types, Map<Class<?>, List<Object>> byType, Map<Class<?>, List<Object>> ordered, Set<Class<?>> visiting) {
+        // a class on the stack closes a cycle, which is broken here
+        if (ordered.containsKey(type) || !visiting.add(type)) {
+            return;
+        }
+        for (Class<?> referenced : REFERENCES.get(type)) {
+            for (Class<?> candidate : types) {
+                if (candidate != type && referenced.isAssignableFrom(candidate)) {
+                    visit(candidate, types, byType, ordered, visiting);
+                }
+            }
+        }
+        visiting.remove(type);
+        ordered.put(type, Collections.unmodifiableList(byType.get(type)));
+    }
+
+    private static List<Class<?>> referencesOf(Class<?> type) {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+            fields.putIfAbsent(field.getName(), field);
+        }
+        List<Class<?>> references = new ArrayList<>();
+        for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(type).getFields()) {
+            if (fieldPlan.getKind() != CopyPlan.FieldKind.COPY_SUPPORT || fieldPlan.getMode() == FieldCopyMode.RESET) {
+                continue;
+            }
+            Field field = fieldPlan.getField() != null ? fieldPlan.getField() : fields.get(fieldPlan.getName());
+            OneToOne oneToOne = field != null ? field.getAnnotation(OneToOne.class) : null;
+            // the inverse side of a one-to-one has no foreign key
+            if (oneToOne == null || oneToOne.mappedBy().isEmpty()) {
+                references.add(fieldPlan.getType());
+            }
+        }
+        return List.copyOf(references);
+    }
+}
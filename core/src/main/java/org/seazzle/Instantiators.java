@@ -0,0 +1,171 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Creates the new, empty instances the copies are filled into, one {@link Supplier} per class, resolved on the first
+ * copy of the class and reused for every following one. By default the no-arg constructor is bound to a
+ * {@code Supplier} with the {@link LambdaMetafactory}, so an instance costs about as much as {@code new}; if the class
+ * cannot be looked up privately, the constructor is called through a method handle or, as a last resort, through
+ * reflection.
+ * <p>
+ * Classes without a no-arg constructor need an instantiator of their own, registered before their first copy:
+ * <pre>
+ * Instantiators.register(Invoice.class, () -&gt; Invoice.builder().build());
+ * Instantiators.register(type -&gt; type.isAnnotationPresent(Builder.class) ? () -&gt; newViaBuilder(type) : null);
+ * </pre>
+ * The copy fills every field of the new instance, so it must not depend on values set by the instantiator.
+ */
+public final class Instantiators {
+
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Supplier.class);
+    private static final MethodType GET_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<Optional<Supplier<?>>> INSTANTIATORS = new ClassValue<>() {
+        @Override
+        protected Optional<Supplier<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
+        }
+    };
+
+    // replaced on every registration, read without locking
+    private static final AtomicReference<Map<Class<?>, Supplier<?>>> REGISTERED = new AtomicReference<>(Map.of());
+    private static final AtomicReference<List<Strategy>> STRATEGIES = new AtomicReference<>(List.of());
+
+    private Instantiators() {
+    }
+
+    /**
+     * Creates the instances of classes a {@link #register(Class, Supplier) registered} instantiator is not known for,
+     * e.g. all classes built the same way.
+     */
+    @FunctionalInterface
+    public interface Strategy {
+
+        /**
+         * @return the instantiator of the class, or null to leave it to the next strategy or the no-arg constructor
+         */
+        @Nullable
+        Supplier<?> instantiatorOf(Class<?> type);
+    }
+
+    public static <T> void register(@NotNull Class<T> type, @NotNull Supplier<? extends T> instantiator) {
+        Objects.requireNonNull(type, "The type must not be null");
+        Objects.requireNonNull(instantiator, "The instantiator must not be null");
+        REGISTERED.updateAndGet(registered -> {
+            Map<Class<?>, Supplier<?>> updated = new HashMap<>(registered);
+            updated.put(type, instantiator);
+            return Map.copyOf(updated);
+        });
+    }
+
+    /**
+     * Adds a strategy, asked after the strategies added before.
+     */
+    public static void register(@NotNull Strategy strategy) {
+        Objects.requireNonNull(strategy, "The instantiation strategy must not be null");
+        STRATEGIES.updateAndGet(strategies -> {
+            List<Strategy> updated = new ArrayList<>(strategies);
+            updated.add(strategy);
+            return List.copyOf(updated);
+        });
+    }
+
+    /**
+     * @return the instantiator of the class, or null if it has none, i.e. it is abstract or has no no-arg constructor
+     * and no instantiator was registered
+     */
+    @Nullable
+    public static Supplier<?> of(@NotNull Class<?> type) {
+        return INSTANTIATORS.get(type).orElse(null);
+    }
+
+    @Nullable
+    private static Supplier<?> resolve(Class<?> type) {
+        Supplier<?> registered = REGISTERED.get().get(type);
+        if (registered != null) {
+            return registered;
+        }
+        for (Strategy strategy : STRATEGIES.get()) {
+            Supplier<?> instantiator = strategy.instantiatorOf(type);
+            if (instantiator != null) {
+                return instantiator;
+            }
+        }
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // e.g. a module which is not open to us
+            return reflectiveInstantiator(constructor);
+        }
+        try {
+            // a hidden class calling the constructor directly, as a lambda of the entity class would
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", SUPPLIER_TYPE, GET_TYPE, handle, MethodType.methodType(type));
+            return (Supplier<?>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            if (e instanceof VirtualMachineError) {
+                throw (VirtualMachineError) e;
+            }
+            // the lookup lacks full privileges, e.g. for a class in another module
+            return new MethodHandleInstantiator(handle.asType(GET_TYPE));
+        }
+    }
+
+    @Nullable
+    private static Supplier<?> reflectiveInstantiator(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Error creating an instance of " + constructor.getDeclaringClass().getName(), e);
+            }
+        };
+    }
+
+    private static final class MethodHandleInstantiator implements Supplier<Object> {
+
+        // ()Object
+        private final MethodHandle constructor;
+
+        private MethodHandleInstantiator(MethodHandle constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object get() {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Error creating an instance", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.seazzle;
+
+import org.hibernate.Hibernate;
+
+import java.util.*;
+
+/**
+ * Copies a graph from an explicit work queue instead of recursive calls, see {@link CopyTraversal#DEPTH_FIRST} and
+ * {@link CopyTraversal#BREADTH_FIRST}.
+ * <p>
+ * An entity copy is created and registered in the session as soon as it is first referenced, its fields are filled
+ * when its node is taken from the queue. Collections and maps are filled after all entities are complete, so hash-
+ * and sort-based targets only ever see fully copied elements.
+ */
+final class IterativeCopy {
+
+    private final CopySession session;
+    private final boolean breadthFirst;
+    private final Deque<Node> pending = new ArrayDeque<>();
+    private final List<Population> populations = new ArrayList<>();
+
+    IterativeCopy(CopySession session) {
+        this.session = session;
+        this.breadthFirst = session.getOptions().getTraversal() == CopyTraversal.BREADTH_FIRST;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T copy(T old) {
+        if (!(old instanceof CopySupport)) {
+            return old;
+        }
+
+        // the queue and populations are reused by the following copies of the session, see CopySession#iterativeCopy
+        pending.clear();
+        populations.clear();
+        T copy = (T) resolve(old, false, session.getOptions().getScope().root(), null, Hibernate.unproxy(old).getClass().getSimpleName(), -1);
+        while (!pending.isEmpty()) {
+            fill(breadthFirst ? pending.pollFirst() : pending.pollLast());
+        }
+        // inner collections first
+        for (int i = populations.size() - 1; i >= 0; i--) {
+            populations.get(i).populate();
+        }
+        populations.clear();
+        return copy;
+    }
+
+    /**
+     * @return the copy of the value: a new, yet empty copy for an entity seen the first time, the known copy for an
+     * entity copied already, or the value itself if it is not copied at all
+     * @param deep  true to copy the value like an entity even if it does not implement {@link CopySupport}
+     * @param scope the association path of the value within the {@link CopyScope}
+     */
+    private Object resolve(Object value, boolean deep, CopyScope.Path scope, Node parent, Object segment, int index) {
+        if (!(value instanceof CopySupport) && !(deep && CopyService.isDeepCopyable(value))) {
+            return value;
+        }
+
+        Object original = Hibernate.unproxy(value);
+        if (session.isInstrumented() && original != value) {
+            session.listener().proxyUnwrapped(original.getClass());
+        }
+        Object existing = session.getCopy(original);
+        if (existing != null) {
+            return existing;
+        }
+
+        Node node = new Node(parent, segment, index);
+        try {
+            CopyPlan plan = CopyPlan.of(original.getClass());
+            Object copy = plan.newInstance(original);
+            session.registerIfAbsent(original, copy);
+            if (session.isInstrumented() && CopyService.isReflectiveFallback(plan, session.getOptions())) {
+                session.listener().reflectiveFallback(plan.getType());
+            }
+            node.schedule(original, copy, plan, scope);
+            pending.add(node);
+            return copy;
+        } catch (CopyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CopyException(node.path(), e);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void fill(Node node) {
+        Object original = node.original;
+        Object copy = node.copy;
+        boolean instrumented = session.isInstrumented();
+        long start = instrumented ? System.nanoTime() : 0L;
+        for (CopyPlan.FieldPlan fieldPlan : CopyService.copyDirectFields(node.plan, original, copy, session.getOptions())) {
+            FieldAccessor accessor = fieldPlan.getAccessor();
+            boolean deep = fieldPlan.getMode() == FieldCopyMode.DEEP;
+            try {
+                if (fieldPlan.getMode() == FieldCopyMode.RESET) {
+                    accessor.set(copy, fieldPlan.getResetValue());
+                    continue;
+                }
+                if (fieldPlan.getKind() == CopyPlan.FieldKind.PRIMITIVE || fieldPlan.isImmutable()) {
+                    accessor.copy(original, copy);
+                    continue;
+                }
+
+                Object value = accessor.get(original);
+                if (value == null) {
+                    accessor.set(copy, null);
+                    continue;
+                }
+                if (CopyService.isSkipped(value, session)) {
+                    continue;
+                }
+                if (fieldPlan.getMode() == FieldCopyMode.SHALLOW) {
+                    accessor.set(copy, CopyService.shallowCopyOf(fieldPlan, value, session.getOptions()));
+                    continue;
+                }
+                if (fieldPlan.hasImmutableElements()) {
+                    accessor.set(copy, CopyService.copyOfValues(fieldPlan, value, session.getOptions()));
+                    if (instrumented) {
+                        CopyService.reportCopied(session, node.plan.getType(), fieldPlan, value);
+                    }
+                    continue;
+                }
+                CopyScope.Path scope = fieldPlan.isAssociation() ? node.scope.child(fieldPlan.getName()) : node.scope;
+                if (!scope.isIncluded()) {
+                    if (session.getOptions().getScope().getOutOfScopePolicy() == OutOfScopePolicy.SHARE) {
+                        accessor.set(copy, CopyService.sharedCopyOf(fieldPlan, value, session));
+                    }
+                    continue;
+                }
+
+                switch (fieldPlan.getKind()) {
+                    case MAP: {
+                        Map<?, ?> source = (Map<?, ?>) value;
+                        Map target = CopyService.newMapInstance(fieldPlan.getName(), fieldPlan.getType(), source, session.getOptions().getCollectionFactory());
+                        Object[] entries = new Object[source.size() * 2];
+                        int i = 0;
+                        for (Map.Entry<?, ?> entry : source.entrySet()) {
+                            if (CopyService.isSkipped(entry.getKey(), session) || CopyService.isSkipped(entry.getValue(), session)) {
+                                continue;
+                            }
+                            entries[i] = resolve(entry.getKey(), deep, scope, node, fieldPlan.getName() + ".key", i / 2);
+                            entries[i + 1] = resolve(entry.getValue(), deep, scope, node, fieldPlan.getName(), i / 2);
+                            i += 2;
+                        }
+                        int size = i;
+                        accessor.set(copy, target);
+                        if (instrumented) {
+                            session.listener().mapCopied(node.plan.getType(), fieldPlan.getName(), source.size());
+                        }
+                        populations.add(() -> {
+                            for (int e = 0; e < size; e += 2) {
+                                target.put(entries[e], entries[e + 1]);
+                            }
+                        });
+                        break;
+                    }
+                    case COLLECTION: {
+                        Collection<?> source = (Collection<?>) value;
+                        Collection target = CopyService.newCollectionInstance(fieldPlan.getType(), source, session.getOptions().getCollectionFactory());
+                        Object[] elements = new Object[source.size()];
+                        int i = 0;
+                        for (Object element : source) {
+                            if (!CopyService.isSkipped(element, session)) {
+                                elements[i] = resolve(element, deep, scope, node, fieldPlan.getName(), i);
+                                i++;
+                            }
+                        }
+                        int size = i;
+                        accessor.set(copy, target);
+                        if (instrumented) {
+                            session.listener().collectionCopied(node.plan.getType(), fieldPlan.getName(), source.size());
+                        }
+                        populations.add(() -> target.addAll(Arrays.asList(elements).subList(0, size)));
+                        break;
+                    }
+                    case COPY_SUPPORT:
+                        accessor.set(copy, resolve(value, deep, scope, node, fieldPlan.getName(), -1));
+                        break;
+                    default:
+                        accessor.set(copy, deep ? resolve(value, true, scope, node, fieldPlan.getName(), -1) : CopyService.referenceOf(value, session));
+                }
+            } catch (CopyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CopyException(node.path() + "." + fieldPlan.getName(), e);
+            }
+        }
+        if (instrumented) {
+            session.listener().entityCopied(node.plan.getType(), System.nanoTime() - start);
+        }
+        // the node stays reachable as the parent of its children, it does not need to keep the entities
+        node.original = null;
+        node.copy = null;
+        node.plan = null;
+        node.scope = null;
+    }
+
+    private interface Population {
+        void populate();
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+        private final Object segment;
+        private final int index;
+        private Object original;
+        private Object copy;
+        private CopyPlan plan;
+        private CopyScope.Path scope;
+
+        private Node(Node parent, Object segment, int index) {
+            this.parent = parent;
+            this.segment = segment;
+            this.index = index;
+        }
+
+        private void schedule(Object original, Object copy, CopyPlan plan, CopyScope.Path scope) {
+            this.original = original;
+            this.copy = copy;
+            this.plan = plan;
+            this.scope = scope;
+        }
+
+        // rendered on error only, without recursion as the chain may be very long
+        private String path() {
+            List<Node> nodes = new ArrayList<>();
+            for (Node node = this; node != null; node = node.parent) {
+                nodes.add(node);
+            }
+            StringBuilder path = new StringBuilder();
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                Node node = nodes.get(i);
+                if (path.length() > 0) {
+                    path.append('.');
+                }
+                path.append(node.segment);
+                if (node.index >= 0) {
+                    path.append('[').append(node.index).append(']');
+                }
+            }
+            return path.toString();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.seazzle;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.collection.spi.AbstractPersistentCollection;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+import java.util.*;
+
+/**
+ * Walks a graph level by level before it is copied, grouping the uninitialized associations by their association path,
+ * see {@link LazyLoadPolicy#BATCH_INITIALIZE} and {@link LazyLoadPolicy#REPORT}.
+ */
+final class LazyAssociations {
+
+    // keeps the in lists of the fetches within the limits of common databases
+    private static final int BATCH_SIZE = 500;
+
+    private final CopySession session;
+    private final boolean initialize;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private LazyAssociations(CopySession session, boolean initialize) {
+        this.session = session;
+        this.initialize = initialize;
+    }
+
+    static void prepare(Object root, CopySession session) {
+        LazyLoadPolicy policy = session.getOptions().getLazyLoadPolicy();
+        if (root instanceof CopySupport && (policy == LazyLoadPolicy.BATCH_INITIALIZE || policy == LazyLoadPolicy.REPORT)) {
+            new LazyAssociations(session, policy == LazyLoadPolicy.BATCH_INITIALIZE).walk(Hibernate.unproxy(root));
+        }
+    }
+
+    private void walk(Object root) {
+        visited.add(root);
+        Map<String, List<Object>> level = new LinkedHashMap<>();
+        level.put("", List.of(root));
+        while (!level.isEmpty()) {
+            Map<String, List<Object>> next = new LinkedHashMap<>();
+            level.forEach((path, entities) -> visit(path, entities, next));
+            level = next;
+        }
+    }
+
+    private void visit(String path, List<Object> entities, Map<String, List<Object>> next) {
+        Map<String, List<Object>> uninitialized = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            for (CopyPlan.FieldPlan fieldPlan : CopyPlan.of(entity.getClass()).getFields()) {
+                CopyPlan.FieldKind kind = fieldPlan.getKind();
+                if ((kind != CopyPlan.FieldKind.COPY_SUPPORT && kind != CopyPlan.FieldKind.COLLECTION && kind != CopyPlan.FieldKind.MAP) || !fieldPlan.isTraversed()) {
+                    continue;
+                }
+                String fieldPath = path.isEmpty() ? fieldPlan.getName() : path + "." + fieldPlan.getName();
+                if (fieldPlan.isAssociation() && !session.getOptions().getScope().includes(fieldPath)) {
+                    continue;
+                }
+                Object value = fieldPlan.getAccessor().get(entity);
+                if (value != null) {
+                    enqueue(fieldPath, value, next, uninitialized);
+                }
+            }
+        }
+
+        uninitialized.forEach((fieldPath, values) -> {
+            if (initialize) {
+                initialize(values);
+                for (Object value : values) {
+                    enqueue(fieldPath, value, next, uninitialized);
+                }
+            } else {
+                session.reportUninitialized(fieldPath);
+            }
+        });
+    }
+
+    private void enqueue(String path, Object value, Map<String, List<Object>> next, Map<String, List<Object>> uninitialized) {
+        if (!Hibernate.isInitialized(value)) {
+            uninitialized.computeIfAbsent(path, p -> new ArrayList<>()).add(value);
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                enqueueEntity(path, element, next, uninitialized);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                enqueueEntity(path, entry.getKey(), next, uninitialized);
+                enqueueEntity(path, entry.getValue(), next, uninitialized);
+            }
+        } else {
+            enqueueEntity(path, value, next, uninitialized);
+        }
+    }
+
+    private void enqueueEntity(String path, Object value, Map<String, List<Object>> next, Map<String, List<Object>> uninitialized) {
+        if (!(value instanceof CopySupport)) {
+            return;
+        }
+        if (!Hibernate.isInitialized(value)) {
+            uninitialized.computeIfAbsent(path, p -> new ArrayList<>()).add(value);
+            return;
+        }
+        Object entity = Hibernate.unproxy(value);
+        if (visited.add(entity)) {
+            next.computeIfAbsent(path, p -> new ArrayList<>()).add(entity);
+        }
+    }
+
+    /**
+     * Initializes the proxies and collections of one association path, grouped by session and entity type or
+     * collection role.
+     */
+    private static void initialize(List<Object> values) {
+        Map<SharedSessionContractImplementor, Map<String, List<HibernateProxy>>> proxies = new IdentityHashMap<>();
+        Map<SharedSessionContractImplementor, Map<String, List<AbstractPersistentCollection<?>>>> collections = new IdentityHashMap<>();
+        for (Object value : values) {
+            if (Hibernate.isInitialized(value)) {
+                // the same proxy or collection may be referenced several times
+                continue;
+            }
+            if (value instanceof HibernateProxy) {
+                LazyInitializer initializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+                if (initializer.getSession() instanceof Session) {
+                    proxies.computeIfAbsent(initializer.getSession(), s -> new LinkedHashMap<>())
+                            .computeIfAbsent(initializer.getEntityName(), e -> new ArrayList<>())
+                            .add((HibernateProxy) value);
+                    continue;
+                }
+            } else if (value instanceof AbstractPersistentCollection) {
+                AbstractPersistentCollection<?> collection = (AbstractPersistentCollection<?>) value;
+                if (collection.getSession() != null && collection.getOwner() != null) {
+                    collections.computeIfAbsent(collection.getSession(), s -> new LinkedHashMap<>())
+                            .computeIfAbsent(collection.getRole(), r -> new ArrayList<>())
+                            .add(collection);
+                    continue;
+                }
+            }
+            // detached or stateless, initialized (or failing) as it would while copying
+            Hibernate.initialize(value);
+        }
+
+        proxies.forEach((session, byEntityName) -> byEntityName.forEach((entityName, group) -> {
+            for (List<HibernateProxy> chunk : chunks(group)) {
+                List<Object> ids = new ArrayList<>(chunk.size());
+                for (HibernateProxy proxy : chunk) {
+                    ids.add(proxy.getHibernateLazyInitializer().getInternalIdentifier());
+                }
+                ((Session) session).byMultipleIds(entityName).multiLoad(ids);
+                // resolved from the persistence context without further selects
+                chunk.forEach(Hibernate::initialize);
+            }
+        }));
+
+        collections.forEach((session, byRole) -> byRole.forEach((role, group) -> {
+            String ownerEntityName = session.getFactory().getMappingMetamodel().getCollectionDescriptor(role)
+                    .getOwnerEntityPersister().getEntityName();
+            String property = role.substring(ownerEntityName.length() + 1);
+            String query = "select o from " + ownerEntityName + " o left join fetch o." + property + " where o in (:owners)";
+            for (List<AbstractPersistentCollection<?>> chunk : chunks(group)) {
+                List<Object> owners = new ArrayList<>(chunk.size());
+                for (AbstractPersistentCollection<?> collection : chunk) {
+                    owners.add(collection.getOwner());
+                }
+                session.createQuery(query, Object.class).setParameterList("owners", owners).getResultList();
+            }
+        }));
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += BATCH_SIZE) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + BATCH_SIZE)));
+        }
+        return chunks;
+    }
+}
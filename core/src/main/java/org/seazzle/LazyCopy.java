@@ -0,0 +1,419 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import org.hibernate.Hibernate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collections and maps of entities whose elements are only copied on first access, see
+ * {@link CopyOptions.Builder#lazyCopyThreshold(int)}. The copy of the owning entity references a wrapper which keeps
+ * the original collection and the session; the first call of any method, reading or writing, copies the elements into
+ * the collection the eager copy would have created and delegates to it from then on. Elements are copied within the
+ * session of the copy, so references to entities copied before or after keep pointing to the same copies. The lazy
+ * copies of one session may be accessed first from different threads: as the session is no concurrent map, they take
+ * the lock of the session and copy one at a time. A lazy copy keeps the session and the originals reachable until it
+ * is accessed, and releases them then.
+ * <p>
+ * Only lists, sets and maps declared by an interface their wrapper implements are deferred, e.g. {@code List},
+ * {@code Set}, {@code Collection} or {@code Map}; other fields are copied eagerly. The originals must still be
+ * readable on first access, i.e. within the Hibernate session they were loaded in.
+ */
+public final class LazyCopy {
+
+    private LazyCopy() {
+    }
+
+    /**
+     * @return true if the value is a lazy copy whose elements have not been copied yet
+     */
+    public static boolean isPending(@Nullable Object value) {
+        return value instanceof Lazy && !((Lazy) value).deferred().isMaterialized();
+    }
+
+    /**
+     * Copies the elements of a lazy copy now, e.g. before the session of the originals is closed.
+     *
+     * @return the given value
+     */
+    public static <T> T materialize(@Nullable T value) {
+        if (value instanceof Lazy) {
+            ((Lazy) value).deferred().target();
+        }
+        return value;
+    }
+
+    static boolean isApplicable(CopyPlan.FieldPlan fieldPlan, Object value, CopySession session) {
+        CopyOptions options = session.getOptions();
+        if (!options.isLazy() || !fieldPlan.isAssociation() || fieldPlan.getMode() != FieldCopyMode.COPY) {
+            return false;
+        }
+        // an uninitialized collection is not even loaded until it is accessed
+        if (!Hibernate.isInitialized(value)) {
+            return true;
+        }
+        int size = value instanceof Map ? ((Map<?, ?>) value).size() : ((Collection<?>) value).size();
+        return size >= options.getLazyCopyThreshold();
+    }
+
+    /**
+     * @return a wrapper copying the value on first access, or null if the declared type of the field does not allow
+     * one
+     */
+    @Nullable
+    static Object of(Class<?> ownerType, CopyPlan.FieldPlan fieldPlan, Object value, CopyScope.Path scope, CopySession session) {
+        Class<?> declaredType = fieldPlan.getType();
+        if (value instanceof List && declaredType.isAssignableFrom(LazyList.class)) {
+            return new LazyList<>(new Deferred<>(ownerType, fieldPlan, value, scope, session));
+        }
+        if (value instanceof Set && declaredType.isAssignableFrom(LazySet.class)) {
+            return new LazySet<>(new Deferred<>(ownerType, fieldPlan, value, scope, session));
+        }
+        if (value instanceof Map && declaredType.isAssignableFrom(LazyMap.class)) {
+            return new LazyMap<>(new Deferred<>(ownerType, fieldPlan, value, scope, session));
+        }
+        return null;
+    }
+
+    private interface Lazy {
+        Deferred<?> deferred();
+    }
+
+    /**
+     * The original and everything needed to copy it until the copy is made, then the copy.
+     */
+    private static final class Deferred<C> {
+
+        private final Class<?> ownerType;
+        private final String name;
+        private volatile C target;
+        // of the session, shared by all lazy copies writing into it
+        private final ReentrantLock lock;
+        // released once copied
+        private CopyPlan.FieldPlan fieldPlan;
+        private Object source;
+        private CopyScope.Path scope;
+        private CopySession session;
+
+        private Deferred(Class<?> ownerType, CopyPlan.FieldPlan fieldPlan, Object source, CopyScope.Path scope, CopySession session) {
+            this.ownerType = ownerType;
+            this.name = fieldPlan.getName();
+            this.fieldPlan = fieldPlan;
+            this.source = source;
+            this.scope = scope;
+            this.session = session;
+            this.lock = session.lazyCopyLock();
+        }
+
+        boolean isMaterialized() {
+            return target != null;
+        }
+
+        C target() {
+            C copied = target;
+            if (copied != null) {
+                return copied;
+            }
+            lock.lock();
+            try {
+                if (target == null) {
+                    target = copy();
+                    fieldPlan = null;
+                    source = null;
+                    scope = null;
+                    session = null;
+                }
+                return target;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private C copy() {
+            try {
+                Object copied;
+                if (source instanceof Map) {
+                    copied = CopyService.copyMap(fieldPlan, (Map<?, ?>) source, scope, session);
+                    if (session.isInstrumented()) {
+                        session.listener().mapCopied(ownerType, name, ((Map<?, ?>) source).size());
+                    }
+                } else {
+                    copied = CopyService.copyCollection(fieldPlan, (Collection<?>) source, scope, session);
+                    if (session.isInstrumented()) {
+                        session.listener().collectionCopied(ownerType, name, ((Collection<?>) source).size());
+                    }
+                }
+                if ((source instanceof List && !(copied instanceof List)) || (source instanceof Set && !(copied instanceof Set))) {
+                    throw new IllegalStateException("The collection factory created a " + copied.getClass().getName() + " for a " + source.getClass().getName());
+                }
+                return (C) copied;
+            } catch (CopyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CopyException(ownerType.getSimpleName() + "." + name, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return target != null ? target.toString() : ownerType.getSimpleName() + "." + name + " (not copied yet)";
+        }
+    }
+
+    private abstract static class LazyCollection<E, C extends Collection<E>> implements Collection<E>, Lazy {
+
+        private final Deferred<C> deferred;
+
+        LazyCollection(Deferred<C> deferred) {
+            this.deferred = deferred;
+        }
+
+        @Override
+        public Deferred<C> deferred() {
+            return deferred;
+        }
+
+        C target() {
+            return deferred.target();
+        }
+
+        @Override
+        public int size() {
+            return target().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return target().isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return target().contains(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return target().iterator();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return target().toArray();
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            return target().toArray(a);
+        }
+
+        @Override
+        public boolean add(E e) {
+            return target().add(e);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return target().remove(o);
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> c) {
+            return target().containsAll(c);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return target().addAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return target().removeAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return target().retainAll(c);
+        }
+
+        @Override
+        public void clear() {
+            target().clear();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || target().equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return target().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return deferred.toString();
+        }
+    }
+
+    private static final class LazyList<E> extends LazyCollection<E, List<E>> implements List<E> {
+
+        private LazyList(Deferred<List<E>> deferred) {
+            super(deferred);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            return target().addAll(index, c);
+        }
+
+        @Override
+        public E get(int index) {
+            return target().get(index);
+        }
+
+        @Override
+        public E set(int index, E element) {
+            return target().set(index, element);
+        }
+
+        @Override
+        public void add(int index, E element) {
+            target().add(index, element);
+        }
+
+        @Override
+        public E remove(int index) {
+            return target().remove(index);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return target().indexOf(o);
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return target().lastIndexOf(o);
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return target().listIterator();
+        }
+
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            return target().listIterator(index);
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            return target().subList(fromIndex, toIndex);
+        }
+    }
+
+    private static final class LazySet<E> extends LazyCollection<E, Set<E>> implements Set<E> {
+
+        private LazySet(Deferred<Set<E>> deferred) {
+            super(deferred);
+        }
+    }
+
+    private static final class LazyMap<K, V> implements Map<K, V>, Lazy {
+
+        private final Deferred<Map<K, V>> deferred;
+
+        private LazyMap(Deferred<Map<K, V>> deferred) {
+            this.deferred = deferred;
+        }
+
+        @Override
+        public Deferred<Map<K, V>> deferred() {
+            return deferred;
+        }
+
+        private Map<K, V> target() {
+            return deferred.target();
+        }
+
+        @Override
+        public int size() {
+            return target().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return target().isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return target().containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return target().containsValue(value);
+        }
+
+        @Override
+        public V get(Object key) {
+            return target().get(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return target().put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return target().remove(key);
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> m) {
+            target().putAll(m);
+        }
+
+        @Override
+        public void clear() {
+            target().clear();
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return target().keySet();
+        }
+
+        @Override
+        public Collection<V> values() {
+            return target().values();
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return target().entrySet();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || target().equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return target().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return deferred.toString();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.seazzle;
+
+/**
+ * How uninitialized Hibernate proxies and collections of the copied graph are handled. The root entity itself is
+ * always initialized.
+ */
+public enum LazyLoadPolicy {
+
+    /**
+     * Proxies and collections are initialized while they are copied, one select per association.
+     */
+    INITIALIZE,
+
+    /**
+     * Uninitialized proxies and collections are not copied, the fields of the copy keep the value of a new instance.
+     * Uninitialized elements of collections and maps are left out.
+     */
+    SKIP,
+
+    /**
+     * Before copying, the graph is walked level by level and all uninitialized associations of one association path
+     * are initialized together: proxies with one multi load per entity type, collections with one join fetch of
+     * their owners.
+     */
+    BATCH_INITIALIZE,
+
+    /**
+     * Like {@link #SKIP}, additionally the paths of the uninitialized associations (e.g. {@code children.items}) are
+     * reported by {@link CopySession#getUninitializedPaths()}, so the caller can fetch them and copy again.
+     */
+    REPORT;
+
+    boolean skipsUninitialized() {
+        return this == SKIP || this == REPORT;
+    }
+}
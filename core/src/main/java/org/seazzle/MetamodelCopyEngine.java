@@ -0,0 +1,262 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.bytecode.enhance.spi.LazyPropertyInitializer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copies mapped entities through the mapping metamodel of a Hibernate {@link SessionFactory} instead of their fields:
+ * <pre>
+ * MetamodelCopyEngine engine = MetamodelCopyEngine.of(sessionFactory);
+ * Department copy = engine.copy(department);
+ * </pre>
+ * The state of an entity is read and written in bulk with {@link EntityPersister#getValues} and
+ * {@link EntityPersister#setValues}, through the property access Hibernate built for the entity, including the
+ * accessors of bytecode enhanced classes. What is left out of the copy is taken from the mapping rather than from
+ * annotations: the identifier is no property value at all, and the version and all generated properties (e.g.
+ * {@code @CreationTimestamp}) keep the values of the new instance, for Hibernate to set them when the copy is
+ * persisted. Properties not fetched by a bytecode enhanced entity keep them as well.
+ * <p>
+ * Associations and collections are classified by their mapped types. Entities implementing {@link CopySupport} are
+ * copied like {@link CopyService} does, once per copy, and the copy annotations of the fields are honoured. Embeddables
+ * are copied as with {@link CopyDeep}, classes which are not mapped entities with {@link CopyService}. Of the
+ * {@link CopyOptions}, the {@link LazyLoadPolicy} and the {@link CollectionFactory} apply, the strategy, traversal and
+ * scope do not. An engine may be shared by any number of threads, like a {@link CopyEngine}.
+ */
+public final class MetamodelCopyEngine {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final CopyOptions options;
+    // resolved once per entity class, read without locking
+    private final ConcurrentMap<Class<?>, Optional<EntityPlan>> plans = new ConcurrentHashMap<>();
+
+    private MetamodelCopyEngine(SessionFactoryImplementor sessionFactory, CopyOptions options) {
+        this.sessionFactory = sessionFactory;
+        this.options = options;
+    }
+
+    public static MetamodelCopyEngine of(@NotNull SessionFactory sessionFactory) {
+        return of(sessionFactory, CopyOptions.defaults());
+    }
+
+    public static MetamodelCopyEngine of(@NotNull SessionFactory sessionFactory, @NotNull CopyOptions options) {
+        Objects.requireNonNull(sessionFactory, "The session factory must not be null");
+        Objects.requireNonNull(options, "The copy options must not be null");
+        return new MetamodelCopyEngine(sessionFactory.unwrap(SessionFactoryImplementor.class), options);
+    }
+
+    public CopyOptions getOptions() {
+        return options;
+    }
+
+    public <T> T copy(T old) {
+        return copy(old, new CopySession(options));
+    }
+
+    /**
+     * Copies within the given session, to copy several roots of one graph consistently.
+     */
+    public <T> T copy(T old, @NotNull CopySession session) {
+        Objects.requireNonNull(session, "The copy session must not be null");
+        @SuppressWarnings("unchecked")
+        T copy = (T) copyValue(old, false, session);
+        return copy;
+    }
+
+    /**
+     * @param deep true to copy the value even if it does not implement {@link CopySupport}
+     */
+    private Object copyValue(@Nullable Object value, boolean deep, CopySession session) {
+        if (!(value instanceof CopySupport) && !(deep && CopyService.isDeepCopyable(value))) {
+            return value;
+        }
+        Object original = Hibernate.unproxy(value);
+        EntityPlan plan = planOf(original.getClass());
+        if (plan == null) {
+            return CopyService.copyRecursive(original, deep, CopyScope.all().root(), session);
+        }
+        Object existing = session.getCopy(original);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            Object copy = plan.copyPlan.newInstance(original);
+            Object registered = session.registerIfAbsent(original, copy);
+            if (registered != copy) {
+                return registered;
+            }
+
+            Object[] values = plan.persister.getValues(original);
+            // the values the copy keeps are the ones of the new instance
+            Object[] copiedValues = plan.persister.getValues(copy);
+            for (int i = 0; i < plan.properties.length; i++) {
+                PropertyPlan property = plan.properties[i];
+                Object propertyValue = values[i];
+                if (property.kind == PropertyKind.KEPT || propertyValue == LazyPropertyInitializer.UNFETCHED_PROPERTY) {
+                    continue;
+                }
+                if (property.mode == FieldCopyMode.RESET) {
+                    copiedValues[i] = property.resetValue;
+                    continue;
+                }
+                if (propertyValue == null) {
+                    copiedValues[i] = null;
+                    continue;
+                }
+                // uninitialized associations are left as the new instance has them
+                if (CopyService.isSkipped(propertyValue, session)) {
+                    continue;
+                }
+                copiedValues[i] = copyProperty(property, propertyValue, session);
+            }
+            plan.persister.setValues(copy, copiedValues);
+            return copy;
+        } catch (CopyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CopyException(plan.persister.getEntityName(), e);
+        }
+    }
+
+    private Object copyProperty(PropertyPlan property, Object value, CopySession session) throws IllegalAccessException {
+        boolean deep = property.mode == FieldCopyMode.DEEP;
+        switch (property.kind) {
+            case EMBEDDED:
+                return property.mode == FieldCopyMode.SHALLOW ? value : copyValue(value, true, session);
+            case TO_ONE:
+                return property.mode == FieldCopyMode.SHALLOW ? value : copyOrReference(value, deep, session);
+            case MAP: {
+                Map<Object, Object> map = CopyService.newMapInstance(property.name, property.type, (Map<?, ?>) value, options.getCollectionFactory());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    if (property.mode == FieldCopyMode.SHALLOW) {
+                        map.put(entry.getKey(), entry.getValue());
+                    } else if (!CopyService.isSkipped(entry.getKey(), session) && !CopyService.isSkipped(entry.getValue(), session)) {
+                        map.put(copyOrReference(entry.getKey(), deep, session), copyOrReference(entry.getValue(), deep, session));
+                    }
+                }
+                return map;
+            }
+            case COLLECTION: {
+                Collection<Object> collection = CopyService.newCollectionInstance(property.type, (Collection<?>) value, options.getCollectionFactory());
+                if (property.mode == FieldCopyMode.SHALLOW) {
+                    collection.addAll((Collection<?>) value);
+                    return collection;
+                }
+                for (Object element : (Collection<?>) value) {
+                    if (!CopyService.isSkipped(element, session)) {
+                        collection.add(copyOrReference(element, deep, session));
+                    }
+                }
+                return collection;
+            }
+            default:
+                return deep ? copyValue(value, true, session) : CopyService.referenceOf(value, session);
+        }
+    }
+
+    private Object copyOrReference(@Nullable Object value, boolean deep, CopySession session) {
+        if (value instanceof CopySupport || (deep && CopyService.isDeepCopyable(value))) {
+            return copyValue(value, deep, session);
+        }
+        return value != null ? CopyService.referenceOf(value, session) : null;
+    }
+
+    /**
+     * @return the plan of a mapped entity class, or null if the class is not mapped by the session factory
+     */
+    @Nullable
+    private EntityPlan planOf(Class<?> type) {
+        Optional<EntityPlan> plan = plans.get(type);
+        if (plan == null) {
+            // resolved outside the map, a race only resolves the same plan twice
+            EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(type);
+            plan = Optional.ofNullable(persister != null ? new EntityPlan(type, persister) : null);
+            Optional<EntityPlan> resolved = plans.putIfAbsent(type, plan);
+            if (resolved != null) {
+                plan = resolved;
+            }
+        }
+        return plan.orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        return "MetamodelCopyEngine[" + sessionFactory.getName() + ", " + options.getLazyLoadPolicy() + "]";
+    }
+
+    private enum PropertyKind {
+        // version, generated or ignored, the copy keeps the value of the new instance
+        KEPT, VALUE, EMBEDDED, TO_ONE, COLLECTION, MAP
+    }
+
+    private static final class EntityPlan {
+
+        private final EntityPersister persister;
+        private final CopyPlan copyPlan;
+        // in the order of the property values
+        private final PropertyPlan[] properties;
+
+        private EntityPlan(Class<?> type, EntityPersister persister) {
+            this.persister = persister;
+            this.copyPlan = CopyPlan.of(type);
+
+            Map<String, Field> fields = new HashMap<>();
+            for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+                // a field of a subclass hides the ones of its superclasses
+                fields.putIfAbsent(field.getName(), field);
+            }
+            String[] names = persister.getPropertyNames();
+            Type[] types = persister.getPropertyTypes();
+            Generator[] generators = persister.getEntityMetamodel().getGenerators();
+            int version = persister.isVersioned() ? persister.getVersionProperty() : -1;
+            this.properties = new PropertyPlan[names.length];
+            for (int i = 0; i < names.length; i++) {
+                boolean managed = i == version || generators[i] != null;
+                properties[i] = new PropertyPlan(names[i], types[i], fields.get(names[i]), managed);
+            }
+        }
+    }
+
+    private static final class PropertyPlan {
+
+        private final String name;
+        // the declared type of the field, or the type Hibernate maps the property to
+        private final Class<?> type;
+        private final PropertyKind kind;
+        private final FieldCopyMode mode;
+        @Nullable
+        private final Object resetValue;
+
+        private PropertyPlan(String name, Type mappedType, @Nullable Field field, boolean managed) {
+            this.name = name;
+            this.type = field != null ? field.getType() : mappedType.getReturnedClass();
+            FieldCopyMode declaredMode = field != null ? CopyPlan.declaredModeOf(field) : FieldCopyMode.COPY;
+            this.mode = declaredMode != null ? declaredMode : FieldCopyMode.COPY;
+            if (managed || declaredMode == null) {
+                this.kind = PropertyKind.KEPT;
+            } else if (mappedType.isCollectionType()) {
+                this.kind = Map.class.isAssignableFrom(type) ? PropertyKind.MAP : PropertyKind.COLLECTION;
+            } else if (mappedType.isEntityType()) {
+                this.kind = PropertyKind.TO_ONE;
+            } else if (mappedType.isComponentType()) {
+                this.kind = PropertyKind.EMBEDDED;
+            } else {
+                this.kind = PropertyKind.VALUE;
+            }
+            this.resetValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+    }
+}
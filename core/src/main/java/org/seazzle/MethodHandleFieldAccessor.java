@@ -0,0 +1,85 @@
+package org.seazzle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+final class MethodHandleFieldAccessor implements FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    // (Object)Object
+    private final MethodHandle getter;
+    // (Object target, Object value)void
+    private final MethodHandle setter;
+    // (Object source, Object target)void, the value never leaves the handle, so primitives stay unboxed
+    private final MethodHandle copier;
+
+    private MethodHandleFieldAccessor(String name, MethodHandle getter, MethodHandle setter, MethodHandle copier) {
+        this.name = name;
+        this.getter = getter;
+        this.setter = setter;
+        this.copier = copier;
+    }
+
+    static MethodHandleFieldAccessor create(Field field) throws IllegalAccessException {
+        Class<?> declaringClass = field.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        VarHandle varHandle = lookup.unreflectVarHandle(field);
+
+        MethodHandle get = varHandle.toMethodHandle(VarHandle.AccessMode.GET);
+        // a VarHandle never writes final fields, the setter of an accessible field does
+        MethodHandle set = Modifier.isFinal(field.getModifiers())
+                ? lookup.unreflectSetter(field)
+                : varHandle.toMethodHandle(VarHandle.AccessMode.SET);
+
+        // set(target, get(source)), with the arguments swapped to (source, target)
+        MethodHandle copy = MethodHandles.filterArguments(set, 1, get);
+        copy = MethodHandles.permuteArguments(copy, MethodType.methodType(void.class, declaringClass, declaringClass), 1, 0);
+
+        return new MethodHandleFieldAccessor(field.getName(), get.asType(GETTER_TYPE), set.asType(SETTER_TYPE), copy.asType(SETTER_TYPE));
+    }
+
+    @Override
+    public Object get(Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Error reading field " + name, e);
+        }
+    }
+
+    @Override
+    public void set(Object target, Object value) {
+        try {
+            setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Error setting field " + name, e);
+        }
+    }
+
+    @Override
+    public void copy(Object source, Object target) {
+        try {
+            copier.invokeExact(source, target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Error copying field " + name, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MethodHandleFieldAccessor[" + name + "]";
+    }
+}
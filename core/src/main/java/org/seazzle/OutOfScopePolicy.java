@@ -0,0 +1,19 @@
+package org.seazzle;
+
+/**
+ * What a copy references through associations outside of its {@link CopyScope}.
+ */
+public enum OutOfScopePolicy {
+
+    /**
+     * The copy references the original entities, or their copies if they were copied within the scope. Collections
+     * and maps are new instances holding these references.
+     */
+    SHARE,
+
+    /**
+     * The association is not copied, the field of the copy keeps the value of a new instance: null for a single
+     * entity, usually an empty collection or map.
+     */
+    NULL
+}
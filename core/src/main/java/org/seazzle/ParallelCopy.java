@@ -0,0 +1,66 @@
+package org.seazzle;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies the elements of a large collection or map on a {@link ForkJoinPool}, see
+ * {@link CopyOptions.Builder#parallelThreshold(int)}. Every element is copied with the recursive copy into the
+ * concurrent identity map of the session, the results keep the order of the sources.
+ */
+final class ParallelCopy extends RecursiveAction {
+
+    private final Object[] sources;
+    private final Object[] copies;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+    private final boolean deep;
+    private final CopyScope.Path scope;
+    private final CopySession session;
+
+    private ParallelCopy(Object[] sources, Object[] copies, int from, int to, int chunkSize, boolean deep, CopyScope.Path scope, CopySession session) {
+        this.sources = sources;
+        this.copies = copies;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+        this.deep = deep;
+        this.scope = scope;
+        this.session = session;
+    }
+
+    static boolean isApplicable(int size, CopySession session) {
+        return session.getOptions().isParallel() && size >= session.getOptions().getParallelThreshold();
+    }
+
+    static Object[] copyAll(Object[] sources, boolean deep, CopyScope.Path scope, CopySession session) {
+        ForkJoinPool pool = session.getOptions().getForkJoinPool();
+        Object[] copies = new Object[sources.length];
+        // a few chunks per worker, so idle workers can steal
+        int chunkSize = Math.max(1, sources.length / (pool.getParallelism() * 4));
+        ParallelCopy task = new ParallelCopy(sources, copies, 0, sources.length, chunkSize, deep, scope, session);
+
+        if (ForkJoinTask.getPool() == pool) {
+            // nested collection within a parallel copy, fork from the current worker
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        return copies;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= chunkSize) {
+            for (int i = from; i < to; i++) {
+                copies[i] = CopyService.copyRecursive(sources[i], deep, scope, session);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new ParallelCopy(sources, copies, from, middle, chunkSize, deep, scope, session),
+                new ParallelCopy(sources, copies, middle, to, chunkSize, deep, scope, session));
+    }
+}
@@ -0,0 +1,40 @@
+package org.seazzle;
+
+import java.lang.reflect.Field;
+
+final class ReflectiveFieldAccessor implements FieldAccessor {
+
+    private final Field field;
+
+    ReflectiveFieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    @Override
+    public Object get(Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Error reading field " + field.getName(), e);
+        }
+    }
+
+    @Override
+    public void set(Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Error setting field " + field.getName(), e);
+        }
+    }
+
+    @Override
+    public void copy(Object source, Object target) {
+        set(target, get(source));
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectiveFieldAccessor[" + field.getName() + "]";
+    }
+}
@@ -0,0 +1,434 @@
+package org.seazzle;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.generator.internal.CurrentTimestampGeneration;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copies an aggregate inside the database, with one {@code INSERT INTO ... SELECT} per table and without loading any
+ * entity into the JVM:
+ * <pre>
+ * SqlCopyEngine engine = SqlCopyEngine.builder(sessionFactory).build();
+ * engine.createIdMapTable(); // once, unless the schema has it already
+ * Object copyId = engine.copy(entityManager, Department.class, departmentId);
+ * </pre>
+ * The aggregate is found from the mapping the same way {@link CopyService} finds it in memory: to-one associations and
+ * inverse one-to-many associations ({@code mappedBy}) to entities implementing {@link CopySupport} are followed, with
+ * the copy annotations of the fields. Every entity of the aggregate is first given a new identifier in an id map table,
+ * generated by the database, then every table is copied from its originals joined with the id map, replacing the
+ * foreign keys of copied associations by the new identifiers. The version starts at 0 (or the current timestamp), and
+ * {@code @CreationTimestamp} and {@code @UpdateTimestamp} get the current timestamp, as when the copies are persisted.
+ * A foreign key to a table which is inserted later, e.g. a self-reference like the parent of a tree node, is first
+ * inserted as {@code null} and set by an update after all inserts, so such a column must be nullable; an aggregate with
+ * a {@code NOT NULL} self-reference cannot be copied this way.
+ * <p>
+ * The entities of the aggregate need a {@link UUID} identifier stored as {@code BINARY(16)}, like
+ * {@link org.seazzle.base.BaseEntityWithGeneratedId}, and a single table each. Other collections (many-to-many, element
+ * collections, one-to-many with a join column) and inverse one-to-one associations cannot be copied and are rejected
+ * unless they are ignored. Embeddables and basic values are copied column by column. The caller runs the copy in a
+ * transaction; the second-level cache is not updated.
+ */
+public final class SqlCopyEngine {
+
+    public static final String DEFAULT_ID_MAP_TABLE = "COPY_ID_MAP";
+    public static final String DEFAULT_UUID_FUNCTION = "RANDOM_UUID()";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final String idMapTable;
+    private final String uuidFunction;
+    private final ConcurrentMap<Class<?>, AggregatePlan> plans = new ConcurrentHashMap<>();
+
+    private SqlCopyEngine(Builder builder) {
+        this.sessionFactory = builder.sessionFactory;
+        this.idMapTable = builder.idMapTable;
+        this.uuidFunction = builder.uuidFunction;
+    }
+
+    public static Builder builder(@NotNull SessionFactory sessionFactory) {
+        return new Builder(sessionFactory);
+    }
+
+    /**
+     * Creates the id map table in its own transaction, if it does not exist yet. Schemas managed by migrations declare
+     * the table themselves instead, with the columns of this statement.
+     */
+    public void createIdMapTable() {
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery("create table if not exists " + idMapTable
+                + " (RUN_ID varchar(36) not null, ENTITY varchar(255) not null, OLD_ID binary(16) not null, NEW_ID binary(16) not null,"
+                + " primary key (RUN_ID, ENTITY, OLD_ID))").executeUpdate());
+    }
+
+    /**
+     * Copies the aggregate of the given root, which must exist in the database.
+     *
+     * @return the identifier of the copy of the root
+     */
+    public Object copy(@NotNull EntityManager entityManager, @NotNull Class<?> rootType, @NotNull Object rootId) {
+        Objects.requireNonNull(entityManager, "The entity manager must not be null");
+        Objects.requireNonNull(rootType, "The root type must not be null");
+        Objects.requireNonNull(rootId, "The identifier of the root must not be null");
+        AggregatePlan plan = planOf(rootType);
+        Session session = entityManager.unwrap(Session.class);
+        // the originals as the persistence context knows them
+        session.flush();
+
+        String run = UUID.randomUUID().toString();
+        execute(session, plan.seed, run, Map.of("root", rootId));
+        int added;
+        do {
+            // once per level of the aggregate
+            added = 0;
+            for (String membership : plan.memberships) {
+                added += execute(session, membership, run, Map.of());
+            }
+        } while (added > 0);
+        for (Statement insert : plan.inserts) {
+            execute(session, insert.sql, run, insert.parameters);
+        }
+        for (String update : plan.deferredUpdates) {
+            execute(session, update, run, Map.of());
+        }
+
+        UUID copyId = session.createNativeQuery("select NEW_ID from " + idMapTable + " where RUN_ID = :run and ENTITY = " + plan.rootEntity + " and OLD_ID = :root", UUID.class)
+                .setParameter("run", run)
+                .setParameter("root", rootId)
+                .getSingleResult();
+        execute(session, "delete from " + idMapTable + " where RUN_ID = :run", run, Map.of());
+        return copyId;
+    }
+
+    private static int execute(Session session, String sql, String run, Map<String, Object> parameters) {
+        MutationQuery query = session.createNativeMutationQuery(sql).setParameter("run", run);
+        parameters.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    private AggregatePlan planOf(Class<?> rootType) {
+        AggregatePlan plan = plans.get(rootType);
+        if (plan == null) {
+            // resolved outside the map, a race only resolves the same plan twice
+            plan = new AggregatePlan(rootType);
+            AggregatePlan resolved = plans.putIfAbsent(rootType, plan);
+            if (resolved != null) {
+                plan = resolved;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @return the entity name as SQL string literal
+     */
+    private static String literal(String entityName) {
+        return "'" + entityName.replace("'", "''") + "'";
+    }
+
+    private static final class Statement {
+
+        private final String sql;
+        private final Map<String, Object> parameters;
+
+        private Statement(String sql, Map<String, Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    private final class AggregatePlan {
+
+        private final String rootEntity;
+        private final String seed;
+        private final List<String> memberships = new ArrayList<>();
+        // in foreign key order
+        private final List<Statement> inserts = new ArrayList<>();
+        private final List<String> deferredUpdates = new ArrayList<>();
+
+        private final Map<Class<?>, TablePlan> tables = new LinkedHashMap<>();
+
+        private AggregatePlan(Class<?> rootType) {
+            TablePlan root = tableOf(rootType);
+            this.rootEntity = root.entity;
+            this.seed = "insert into " + idMapTable + " (RUN_ID, ENTITY, OLD_ID, NEW_ID) select :run, " + root.entity + ", r." + root.id + ", " + uuidFunction
+                    + " from " + root.table + " r where r." + root.id + " = :root";
+
+            Set<TablePlan> emitted = new HashSet<>();
+            Set<TablePlan> visiting = new HashSet<>();
+            for (TablePlan table : new ArrayList<>(tables.values())) {
+                emit(table, emitted, visiting);
+            }
+        }
+
+        /**
+         * Resolves the plan of the table and, transitively, of the tables it references.
+         */
+        private TablePlan tableOf(Class<?> type) {
+            TablePlan table = tables.get(type);
+            if (table != null) {
+                return table;
+            }
+            EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+            table = new TablePlan(persister);
+            tables.put(type, table);
+            table.resolve(this);
+            return table;
+        }
+
+        /**
+         * Adds the insert of the table after the inserts of the tables it references. A reference back to a table
+         * whose insert is pending, or to the table itself, is set by an update after all inserts.
+         */
+        private void emit(TablePlan table, Set<TablePlan> emitted, Set<TablePlan> visiting) {
+            if (emitted.contains(table)) {
+                return;
+            }
+            visiting.add(table);
+            Set<String> deferred = new HashSet<>();
+            for (ToOne reference : table.references) {
+                if (visiting.contains(reference.target)) {
+                    deferred.add(reference.column);
+                } else {
+                    emit(reference.target, emitted, visiting);
+                }
+            }
+            visiting.remove(table);
+            emitted.add(table);
+
+            StringJoiner columns = new StringJoiner(", ");
+            StringJoiner values = new StringJoiner(", ");
+            columns.add(table.id);
+            values.add("m.NEW_ID");
+            table.columns.forEach((column, value) -> {
+                columns.add(column);
+                values.add(deferred.contains(column) ? "null" : value);
+            });
+            inserts.add(new Statement("insert into " + table.table + " (" + columns + ") select " + values + " from " + table.table + " t"
+                    + " join " + idMapTable + " m on m.RUN_ID = :run and m.ENTITY = " + table.entity + " and m.OLD_ID = t." + table.id,
+                    table.parameters));
+
+            for (ToOne reference : table.references) {
+                if (deferred.contains(reference.column)) {
+                    deferredUpdates.add("update " + table.table + " c set " + reference.column + " = (select f.NEW_ID from " + table.table + " o"
+                            + " join " + idMapTable + " m on m.RUN_ID = :run and m.ENTITY = " + table.entity + " and m.OLD_ID = o." + table.id
+                            + " join " + idMapTable + " f on f.RUN_ID = :run and f.ENTITY = " + reference.target.entity + " and f.OLD_ID = o." + reference.column
+                            + " where m.NEW_ID = c." + table.id + ")"
+                            + " where c." + table.id + " in (select m.NEW_ID from " + idMapTable + " m where m.RUN_ID = :run and m.ENTITY = " + table.entity + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * A copied to-one association, its foreign key references the copy of the target.
+     */
+    private static final class ToOne {
+
+        private final String column;
+        private final TablePlan target;
+
+        private ToOne(String column, TablePlan target) {
+            this.column = column;
+            this.target = target;
+        }
+    }
+
+    private final class TablePlan {
+
+        private final EntityPersister persister;
+        private final AbstractEntityPersister mapping;
+        // the entity name as SQL literal
+        private final String entity;
+        private final String table;
+        private final String id;
+        // column -> selected expression, except the identifier
+        private final Map<String, String> columns = new LinkedHashMap<>();
+        private final Map<String, Object> parameters = new HashMap<>();
+        private final List<ToOne> references = new ArrayList<>();
+
+        private TablePlan(EntityPersister persister) {
+            if (!(persister instanceof AbstractEntityPersister)) {
+                throw new IllegalArgumentException("Unsupported persister of " + persister.getEntityName() + ": " + persister.getClass().getName());
+            }
+            this.persister = persister;
+            this.mapping = (AbstractEntityPersister) persister;
+            if (persister.getEntityMetamodel().isInherited() || persister.getEntityMetamodel().hasSubclasses() || mapping.getTableSpan() > 1) {
+                throw new IllegalArgumentException(persister.getEntityName() + " is not mapped to a single table of its own, it cannot be copied in the database");
+            }
+            if (persister.getIdentifierType().getReturnedClass() != UUID.class || mapping.getIdentifierColumnNames().length != 1) {
+                throw new IllegalArgumentException(persister.getEntityName() + " has no UUID identifier, it cannot be copied in the database");
+            }
+            this.entity = literal(persister.getEntityName());
+            this.table = mapping.getTableName();
+            this.id = mapping.getIdentifierColumnNames()[0];
+        }
+
+        private void resolve(AggregatePlan aggregate) {
+            Class<?> type = persister.getMappedClass();
+            Map<String, Field> fields = new HashMap<>();
+            for (Field field : CopyService.getAllFields(new ArrayList<>(), type)) {
+                // a field of a subclass hides the ones of its superclasses
+                fields.putIfAbsent(field.getName(), field);
+            }
+            Object[] defaults = null;
+
+            String[] names = persister.getPropertyNames();
+            Type[] types = persister.getPropertyTypes();
+            boolean[] insertable = persister.getPropertyInsertability();
+            Generator[] generators = persister.getEntityMetamodel().getGenerators();
+            int version = persister.isVersioned() ? persister.getVersionProperty() : -1;
+            for (int i = 0; i < names.length; i++) {
+                Field field = fields.get(names[i]);
+                FieldCopyMode mode = field != null ? CopyPlan.declaredModeOf(field) : FieldCopyMode.COPY;
+                String property = persister.getEntityName() + "." + names[i];
+
+                if (types[i].isCollectionType()) {
+                    if (mode == null || mode == FieldCopyMode.RESET) {
+                        // the copy has an empty or no collection, nothing to insert
+                        continue;
+                    }
+                    AbstractCollectionPersister collection = (AbstractCollectionPersister) sessionFactory.getMappingMetamodel()
+                            .getCollectionDescriptor(((CollectionType) types[i]).getRole());
+                    if (!collection.isInverse() || !collection.isOneToMany()) {
+                        throw new IllegalArgumentException("Only inverse one-to-many associations can be copied in the database, but not " + property);
+                    }
+                    Class<?> elementType = collection.getElementType().getReturnedClass();
+                    if (mode != FieldCopyMode.SHALLOW && (CopySupport.class.isAssignableFrom(elementType) || mode == FieldCopyMode.DEEP)) {
+                        // the elements belong to the aggregate, their foreign key is copied with them
+                        TablePlan element = aggregate.tableOf(elementType);
+                        aggregate.memberships.add("insert into " + idMapTable + " (RUN_ID, ENTITY, OLD_ID, NEW_ID) select :run, " + element.entity + ", c." + element.id + ", " + uuidFunction
+                                + " from " + element.table + " c where c." + collection.getKeyColumnNames()[0]
+                                + " in (select m.OLD_ID from " + idMapTable + " m where m.RUN_ID = :run and m.ENTITY = " + entity + ")"
+                                + " and not exists (select 1 from " + idMapTable + " e where e.RUN_ID = :run and e.ENTITY = " + element.entity + " and e.OLD_ID = c." + element.id + ")");
+                    }
+                    continue;
+                }
+
+                String[] propertyColumns = mapping.getPropertyColumnNames(i);
+                // not insertable either, the other side has the foreign key
+                if (propertyColumns.length == 0 && mode != null && types[i].isEntityType()) {
+                    throw new IllegalArgumentException("Inverse one-to-one associations cannot be copied in the database, but not " + property);
+                }
+                if (!insertable[i]) {
+                    continue;
+                }
+
+                Generator generator = generators[i];
+                if (i == version) {
+                    Class<?> versionType = types[i].getReturnedClass();
+                    // the seed Hibernate gives a new version
+                    put(propertyColumns, Number.class.isAssignableFrom(versionType) || versionType.isPrimitive() ? "0" : "current_timestamp");
+                } else if (generator instanceof CurrentTimestampGeneration) {
+                    put(propertyColumns, "current_timestamp");
+                } else if (generator != null) {
+                    if (!generator.generatedOnExecution()) {
+                        throw new IllegalArgumentException("The generated property " + property + " cannot be copied in the database");
+                    }
+                    // left to the database
+                } else if (mode == null || mode == FieldCopyMode.RESET) {
+                    if (defaults == null) {
+                        defaults = persister.getValues(newInstance(type));
+                    }
+                    // the value of the new instance, respectively the reset value of the field
+                    Object value = mode == null ? defaults[i] : resetValueOf(field);
+                    if (value == null || propertyColumns.length != 1 || types[i].isEntityType() || types[i].isComponentType()) {
+                        put(propertyColumns, "null");
+                    } else {
+                        String parameter = "v" + parameters.size();
+                        parameters.put(parameter, value);
+                        put(propertyColumns, ":" + parameter);
+                    }
+                } else if (types[i].isEntityType() && mode != FieldCopyMode.SHALLOW
+                        && (CopySupport.class.isAssignableFrom(types[i].getReturnedClass()) || mode == FieldCopyMode.DEEP)) {
+                    if (propertyColumns.length != 1) {
+                        throw new IllegalArgumentException("Only associations with a single foreign key column can be copied in the database, but not " + property);
+                    }
+                    String column = propertyColumns[0];
+                    TablePlan target = aggregate.tableOf(types[i].getReturnedClass());
+                    references.add(new ToOne(column, target));
+                    columns.put(column, "(select f.NEW_ID from " + idMapTable + " f where f.RUN_ID = :run and f.ENTITY = " + target.entity + " and f.OLD_ID = t." + column + ")");
+                    aggregate.memberships.add("insert into " + idMapTable + " (RUN_ID, ENTITY, OLD_ID, NEW_ID) select :run, " + target.entity + ", x.FK, " + uuidFunction
+                            + " from (select distinct p." + column + " FK from " + table + " p"
+                            + " join " + idMapTable + " m on m.RUN_ID = :run and m.ENTITY = " + entity + " and m.OLD_ID = p." + id
+                            + " where p." + column + " is not null) x"
+                            + " where not exists (select 1 from " + idMapTable + " e where e.RUN_ID = :run and e.ENTITY = " + target.entity + " and e.OLD_ID = x.FK)");
+                } else {
+                    // values, embeddables and referenced entities are copied as they are
+                    for (String column : propertyColumns) {
+                        if (column != null) {
+                            columns.put(column, "t." + column);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void put(String[] propertyColumns, String value) {
+            for (String column : propertyColumns) {
+                if (column != null) {
+                    columns.put(column, value);
+                }
+            }
+        }
+
+        private Object newInstance(Class<?> type) {
+            try {
+                return CopyPlan.of(type).newInstance(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Error creating an instance of " + type.getName(), e);
+            }
+        }
+
+        @Nullable
+        private Object resetValueOf(@Nullable Field field) {
+            return field != null && field.getType().isPrimitive() ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+        }
+    }
+
+    public static final class Builder {
+
+        private final SessionFactoryImplementor sessionFactory;
+        private String idMapTable = DEFAULT_ID_MAP_TABLE;
+        private String uuidFunction = DEFAULT_UUID_FUNCTION;
+
+        private Builder(SessionFactory sessionFactory) {
+            this.sessionFactory = Objects.requireNonNull(sessionFactory, "The session factory must not be null").unwrap(SessionFactoryImplementor.class);
+        }
+
+        /**
+         * @param idMapTable the table mapping the identifiers of the originals to the ones of their copies, created if
+         *                   it does not exist; its rows are deleted after every copy
+         */
+        public Builder idMapTable(@NotNull String idMapTable) {
+            this.idMapTable = Objects.requireNonNull(idMapTable, "The id map table must not be null");
+            return this;
+        }
+
+        /**
+         * @param uuidFunction the SQL expression generating a random UUID, e.g. {@code gen_random_uuid()} on PostgreSQL
+         */
+        public Builder uuidFunction(@NotNull String uuidFunction) {
+            this.uuidFunction = Objects.requireNonNull(uuidFunction, "The UUID function must not be null");
+            return this;
+        }
+
+        public SqlCopyEngine build() {
+            return new SqlCopyEngine(this);
+        }
+    }
+}
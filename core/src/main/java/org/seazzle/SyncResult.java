@@ -0,0 +1,57 @@
+package org.seazzle;
+
+import java.util.List;
+
+/**
+ * What a {@link CopyService#sync sync} changed in the copy. New copies still have to be persisted, e.g. in the order of
+ * {@link CopySession#getCopiesInInsertOrder()}, and removed ones deleted unless orphan removal does it.
+ */
+public final class SyncResult {
+
+    private final List<Object> created;
+    private final List<Object> updated;
+    private final List<Object> removed;
+    private final int unchanged;
+
+    SyncResult(List<Object> created, List<Object> updated, List<Object> removed, int unchanged) {
+        this.created = List.copyOf(created);
+        this.updated = List.copyOf(updated);
+        this.removed = List.copyOf(removed);
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * @return the copies of originals which were not correlated with the copy yet
+     */
+    public List<Object> getCreated() {
+        return created;
+    }
+
+    /**
+     * @return the existing copies of changed originals whose fields were updated
+     */
+    public List<Object> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return references to the correlated entities of the copy whose originals are no longer part of the synced
+     * graph
+     */
+    public List<Object> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the number of existing copies whose originals did not change, only their associations were followed
+     * and the copies were not written
+     */
+    public int getUnchangedCount() {
+        return unchanged;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult[created=" + created.size() + ", updated=" + updated.size() + ", removed=" + removed.size() + ", unchanged=" + unchanged + "]";
+    }
+}
@@ -0,0 +1,31 @@
+package org.seazzle;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * See {@link IdGenerator#timeOrderedUuids()}. The 12 bits following the timestamp count up within one millisecond; if
+ * they overflow, the timestamp runs ahead of the clock until the clock catches up.
+ */
+final class TimeOrderedUuids implements IdGenerator {
+
+    static final TimeOrderedUuids INSTANCE = new TimeOrderedUuids();
+
+    // milliseconds << 12 | counter of the last UUID
+    private final AtomicLong last = new AtomicLong();
+
+    private TimeOrderedUuids() {
+    }
+
+    @Override
+    public UUID nextId(Object entity) {
+        long now = System.currentTimeMillis() << 12;
+        long state = last.updateAndGet(previous -> Math.max(previous + 1, now));
+        // timestamp, version 7 and counter
+        long mostSignificantBits = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        // variant 2 and random bits
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,23 @@
+package org.seazzle;
+
+/**
+ * How collections and maps of {@link ImmutableTypes immutable} values are copied, e.g. a {@code List<String>} or a
+ * {@code Map<Locale, String>}. Their types are taken from the declared type arguments of the field; fields without
+ * them are copied element by element.
+ */
+public enum ValueCollectionPolicy {
+
+    /**
+     * The copy gets a new collection or map of the same kind, filled with one {@code addAll} or {@code putAll}.
+     */
+    COPY,
+
+    /**
+     * The copy references an unmodifiable snapshot, which is the original itself if that is an unmodifiable
+     * collection of the JDK ({@code List.of}, {@code List.copyOf}, ...). Lists keep their order; sets and maps are
+     * only shared if their order is undefined anyway, i.e. they are a {@code HashSet} or {@code HashMap}, and all
+     * of them only if they hold no null, which costs one more pass over their values. Fields of other types, e.g.
+     * declared as {@code ArrayList}, are copied as with {@link #COPY}.
+     */
+    SHARE
+}
@@ -0,0 +1,74 @@
+package org.seazzle.base;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Like {@link BaseEntityWithGeneratedId}, but the identifier is assigned rather than generated by Hibernate, so an
+ * identifier set before persist is kept, e.g. by the {@link org.seazzle.IdGenerator} of a copy. Entities persisted
+ * without identifier get a random UUID. The version is null until the entity is persisted, which tells Hibernate that
+ * an entity with an identifier is new.
+ */
+@MappedSuperclass
+public class BaseEntityWithAssignableId {
+    @Id
+    @Column(name = "ID", columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Version
+    @Column(name = "OPT_LOCK")
+    private Integer optLock;
+
+    @CreationTimestamp
+    private LocalDateTime createDateTime;
+
+    @UpdateTimestamp
+    private LocalDateTime updateDateTime;
+
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Integer getOptLock() {
+        return optLock;
+    }
+
+    public void setOptLock(Integer optLock) {
+        this.optLock = optLock;
+    }
+
+    public LocalDateTime getCreateDateTime() {
+        return createDateTime;
+    }
+
+    public void setCreateDateTime(LocalDateTime createDateTime) {
+        this.createDateTime = createDateTime;
+    }
+
+    public LocalDateTime getUpdateDateTime() {
+        return updateDateTime;
+    }
+
+    public void setUpdateDateTime(LocalDateTime updateDateTime) {
+        this.updateDateTime = updateDateTime;
+    }
+}
@@ -0,0 +1,146 @@
+package org.seazzle.metrics;
+
+import org.seazzle.CopyListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Sums up what is copied, per entity class and per collection or map field, until {@link #reset()}. Safe to share
+ * between threads and copies.
+ */
+public class InMemoryCopyMetrics implements CopyListener {
+
+    private final LongAdder copies = new LongAdder();
+    private final LongAdder copyNanos = new LongAdder();
+    private final ConcurrentMap<Class<?>, LongAdder> entities = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, LongAdder> entityNanos = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SizeStatistics> sizes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, LongAdder> proxiesUnwrapped = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, LongAdder> reflectiveFallbacks = new ConcurrentHashMap<>();
+
+    @Override
+    public void copyFinished(Class<?> rootType, int entities, long nanos) {
+        copies.increment();
+        copyNanos.add(nanos);
+    }
+
+    @Override
+    public void entityCopied(Class<?> type, long nanos) {
+        counter(entities, type).increment();
+        counter(entityNanos, type).add(nanos);
+    }
+
+    @Override
+    public void collectionCopied(Class<?> ownerType, String field, int size) {
+        String key = ownerType.getName() + "." + field;
+        SizeStatistics statistics = sizes.get(key);
+        if (statistics == null) {
+            statistics = sizes.computeIfAbsent(key, f -> new SizeStatistics());
+        }
+        statistics.add(size);
+    }
+
+    @Override
+    public void mapCopied(Class<?> ownerType, String field, int size) {
+        collectionCopied(ownerType, field, size);
+    }
+
+    @Override
+    public void proxyUnwrapped(Class<?> type) {
+        counter(proxiesUnwrapped, type).increment();
+    }
+
+    @Override
+    public void reflectiveFallback(Class<?> type) {
+        counter(reflectiveFallbacks, type).increment();
+    }
+
+    public long getCopies() {
+        return copies.sum();
+    }
+
+    public long getCopyNanos() {
+        return copyNanos.sum();
+    }
+
+    public Map<Class<?>, Long> getEntitiesCopied() {
+        return snapshot(entities);
+    }
+
+    /**
+     * @return the time spent per entity class, see {@link CopyListener#entityCopied(Class, long)}
+     */
+    public Map<Class<?>, Long> getEntityNanos() {
+        return snapshot(entityNanos);
+    }
+
+    /**
+     * @return the sizes of the copied collections and maps by field, e.g. {@code com.example.Order.items}
+     */
+    public Map<String, SizeStatistics> getSizes() {
+        return Map.copyOf(sizes);
+    }
+
+    public Map<Class<?>, Long> getProxiesUnwrapped() {
+        return snapshot(proxiesUnwrapped);
+    }
+
+    public Map<Class<?>, Long> getReflectiveFallbacks() {
+        return snapshot(reflectiveFallbacks);
+    }
+
+    public void reset() {
+        copies.reset();
+        copyNanos.reset();
+        entities.clear();
+        entityNanos.clear();
+        sizes.clear();
+        proxiesUnwrapped.clear();
+        reflectiveFallbacks.clear();
+    }
+
+    // looked up first, computeIfAbsent locks the bin even if the counter exists
+    private static <K> LongAdder counter(ConcurrentMap<K, LongAdder> adders, K key) {
+        LongAdder adder = adders.get(key);
+        return adder != null ? adder : adders.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static <K> Map<K, Long> snapshot(Map<K, LongAdder> adders) {
+        return adders.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().sum()));
+    }
+
+    public static final class SizeStatistics {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private void add(int size) {
+            count.increment();
+            total.add(size);
+            max.accumulate(size);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + ", total=" + getTotal() + ", max=" + getMax();
+        }
+    }
+}
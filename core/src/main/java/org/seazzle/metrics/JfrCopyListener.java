@@ -0,0 +1,162 @@
+package org.seazzle.metrics;
+
+import jdk.jfr.*;
+import org.seazzle.CopyListener;
+
+/**
+ * Emits Flight Recorder events for copies, to be profiled together with the rest of an application:
+ * <pre>
+ * java -XX:StartFlightRecording:filename=copies.jfr ...
+ * jfr print --events org.seazzle.Copy copies.jfr
+ * </pre>
+ * Only {@code org.seazzle.Copy} (one per {@code CopyService.copy} call), {@code org.seazzle.CollectionCopy} and
+ * {@code org.seazzle.ReflectiveFallback} are enabled by default; the per entity events {@code org.seazzle.EntityCopy}
+ * and {@code org.seazzle.ProxyUnwrap} have to be enabled in the recording settings. Events are only created if their
+ * type is enabled in a running recording, so nothing is allocated for disabled events.
+ */
+public class JfrCopyListener implements CopyListener {
+
+    private static final EventType COPY = EventType.getEventType(CopyEvent.class);
+    private static final EventType ENTITY_COPY = EventType.getEventType(EntityCopyEvent.class);
+    private static final EventType COLLECTION_COPY = EventType.getEventType(CollectionCopyEvent.class);
+    private static final EventType PROXY_UNWRAP = EventType.getEventType(ProxyUnwrapEvent.class);
+    private static final EventType REFLECTIVE_FALLBACK = EventType.getEventType(ReflectiveFallbackEvent.class);
+
+    @Override
+    public void copyFinished(Class<?> rootType, int entities, long nanos) {
+        if (!COPY.isEnabled()) {
+            return;
+        }
+        CopyEvent event = new CopyEvent();
+        if (event.shouldCommit()) {
+            event.rootType = rootType;
+            event.entities = entities;
+            event.copyTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void entityCopied(Class<?> type, long nanos) {
+        if (!ENTITY_COPY.isEnabled()) {
+            return;
+        }
+        EntityCopyEvent event = new EntityCopyEvent();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.copyTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void collectionCopied(Class<?> ownerType, String field, int size) {
+        commitCollection(ownerType, field, size, false);
+    }
+
+    @Override
+    public void mapCopied(Class<?> ownerType, String field, int size) {
+        commitCollection(ownerType, field, size, true);
+    }
+
+    private static void commitCollection(Class<?> ownerType, String field, int size, boolean map) {
+        if (!COLLECTION_COPY.isEnabled()) {
+            return;
+        }
+        CollectionCopyEvent event = new CollectionCopyEvent();
+        if (event.shouldCommit()) {
+            event.ownerType = ownerType;
+            event.field = field;
+            event.size = size;
+            event.map = map;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void proxyUnwrapped(Class<?> type) {
+        if (!PROXY_UNWRAP.isEnabled()) {
+            return;
+        }
+        ProxyUnwrapEvent event = new ProxyUnwrapEvent();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void reflectiveFallback(Class<?> type) {
+        if (!REFLECTIVE_FALLBACK.isEnabled()) {
+            return;
+        }
+        ReflectiveFallbackEvent event = new ReflectiveFallbackEvent();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.commit();
+        }
+    }
+
+    // the time is measured by the copy, the events themselves are instant
+
+    @Name("org.seazzle.Copy")
+    @Label("Entity Copy")
+    @Category("Entity Copy Support")
+    @StackTrace(false)
+    static final class CopyEvent extends Event {
+        @Label("Root Type")
+        Class<?> rootType;
+        @Label("Entities")
+        int entities;
+        @Label("Copy Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long copyTime;
+    }
+
+    @Name("org.seazzle.EntityCopy")
+    @Label("Entity Copy of one Entity")
+    @Category("Entity Copy Support")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class EntityCopyEvent extends Event {
+        @Label("Type")
+        Class<?> type;
+        @Label("Copy Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long copyTime;
+    }
+
+    @Name("org.seazzle.CollectionCopy")
+    @Label("Collection Copy")
+    @Category("Entity Copy Support")
+    @StackTrace(false)
+    static final class CollectionCopyEvent extends Event {
+        @Label("Owner Type")
+        Class<?> ownerType;
+        @Label("Field")
+        String field;
+        @Label("Size")
+        int size;
+        @Label("Map")
+        boolean map;
+    }
+
+    @Name("org.seazzle.ProxyUnwrap")
+    @Label("Proxy Unwrap")
+    @Category("Entity Copy Support")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ProxyUnwrapEvent extends Event {
+        @Label("Type")
+        Class<?> type;
+    }
+
+    @Name("org.seazzle.ReflectiveFallback")
+    @Label("Reflective Fallback")
+    @Category("Entity Copy Support")
+    @StackTrace(false)
+    static final class ReflectiveFallbackEvent extends Event {
+        @Label("Type")
+        Class<?> type;
+    }
+}
@@ -0,0 +1,109 @@
+package org.seazzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyEngineTest {
+
+    private static final int TASKS = 2_000;
+    private static final int CHILDREN = 20;
+
+    @Test
+    void shouldCopyConcurrentlyOnPlatformThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (CopyStrategy strategy : CopyStrategy.values()) {
+                stress(executor, CopyEngine.of(CopyOptions.builder().strategy(strategy).build()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldCopyConcurrentlyOnVirtualThreads() throws Exception {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            // virtual threads need JDK 21
+            return;
+        }
+        try {
+            for (CopyStrategy strategy : CopyStrategy.values()) {
+                stress(executor, CopyEngine.of(CopyOptions.builder().strategy(strategy).scope(CopyScope.of("children.*")).build()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldShareTheDefaultEngine() {
+        assertSame(CopyEngine.defaults(), CopyEngine.defaults());
+        assertSame(CopyOptions.defaults(), CopyEngine.defaults().getOptions());
+        assertThrows(NullPointerException.class, () -> CopyEngine.of(null));
+    }
+
+    /**
+     * Copies one shared original from many tasks at once, all starting together so the metadata of the classes is
+     * resolved concurrently as well.
+     */
+    private static void stress(ExecutorService executor, CopyEngine engine) throws Exception {
+        Owner original = owner();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Owner>> copies = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            copies.add(executor.submit(() -> {
+                start.await();
+                return engine.copy(original);
+            }));
+        }
+        start.countDown();
+
+        List<Owner> results = new ArrayList<>(TASKS);
+        for (Future<Owner> copy : copies) {
+            results.add(copy.get(30, TimeUnit.SECONDS));
+        }
+        for (Owner copy : results) {
+            assertNotSame(original, copy);
+            assertEquals("owner", copy.name);
+            assertEquals(CHILDREN, copy.children.size());
+            for (int i = 0; i < CHILDREN; i++) {
+                Member member = copy.children.get(i);
+                assertNotSame(original.children.get(i), member);
+                assertEquals(i, member.position);
+                assertSame(copy, member.owner);
+            }
+        }
+        // no copy shares an instance with another one
+        assertNotSame(results.get(0).children.get(0), results.get(1).children.get(0));
+    }
+
+    private static Owner owner() {
+        Owner owner = new Owner();
+        owner.name = "owner";
+        for (int i = 0; i < CHILDREN; i++) {
+            Member member = new Member();
+            member.position = i;
+            member.owner = owner;
+            owner.children.add(member);
+        }
+        return owner;
+    }
+
+    private static class Owner implements CopySupport {
+        private String name;
+        private List<Member> children = new ArrayList<>();
+    }
+
+    private static class Member implements CopySupport {
+        private int position;
+        private Owner owner;
+    }
+}
@@ -0,0 +1,65 @@
+package org.seazzle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyScopeTest {
+
+    @Test
+    void allIncludesEveryPath() {
+        assertTrue(CopyScope.all().includes("children"));
+        assertTrue(CopyScope.all().includes("children.parentEntity.keyValues"));
+    }
+
+    @Test
+    void includesThePathsLeadingToAnInclude() {
+        CopyScope scope = CopyScope.of("children.items");
+
+        assertTrue(scope.includes("children"));
+        assertTrue(scope.includes("children.items"));
+        assertFalse(scope.includes("children.parentEntity"));
+        assertFalse(scope.includes("children.items.details"));
+        assertFalse(scope.includes("keyValues"));
+    }
+
+    @Test
+    void wildcardsMatchOneOrAnyNumberOfFields() {
+        CopyScope one = CopyScope.of("children.*");
+        CopyScope any = CopyScope.of("children.**");
+
+        assertTrue(one.includes("children.items"));
+        assertFalse(one.includes("children.items.details"));
+        assertTrue(any.includes("children.items.details"));
+        assertFalse(any.includes("keyValues"));
+        assertTrue(CopyScope.of("**.items").includes("children.parent.items"));
+    }
+
+    @Test
+    void excludesTakePrecedence() {
+        CopyScope scope = CopyScope.of("**", "!children.parentEntity", "!keyValues");
+
+        assertTrue(scope.includes("children.items"));
+        assertFalse(scope.includes("children.parentEntity"));
+        assertFalse(scope.includes("children.parentEntity.children"));
+        assertFalse(scope.includes("keyValues"));
+        assertTrue(CopyScope.of("!keyValues").includes("children.items"));
+    }
+
+    @Test
+    void pathsInTheSameMatchStatesShareOneNode() {
+        CopyScope scope = CopyScope.of("**.items", "!**.secret");
+        CopyScope.Path children = scope.root().child("children");
+
+        assertSame(children, children.child("children").child("children"));
+        assertTrue(children.child("items").isIncluded());
+        assertFalse(children.child("children").child("secret").isIncluded());
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> CopyScope.of("children..items"));
+        assertThrows(IllegalArgumentException.class, () -> CopyScope.of("!!children"));
+        assertThrows(NullPointerException.class, () -> CopyScope.of((String) null));
+    }
+}
@@ -0,0 +1,1082 @@
+package org.seazzle;
+
+import org.junit.jupiter.api.Test;
+import org.seazzle.base.BaseEntity;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyServiceTest {
+
+
+    @Test
+    void shouldCopyASingleEntity() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setId(UUID.randomUUID());
+        parentEntity.setIntegerField(Integer.valueOf(2));
+        parentEntity.setIntField(3);
+        parentEntity.setStringField("parent");
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        assertNotEquals(copy, parentEntity);
+        assertNull(copy.getId());
+        assertEquals(3, copy.getIntField());
+        assertEquals(2, copy.getIntegerField());
+        assertEquals("parent", copy.getStringField());
+        assertEquals(0, copy.getChildren().size());
+        assertEquals(0, parentEntity.getChildren().size());
+
+        parentEntity.getChildren().add(new ChildEntity());
+        assertEquals(0, copy.getChildren().size());
+        assertEquals(1, parentEntity.getChildren().size());
+    }
+
+    @Test
+    void shouldCopyABidirectionalOneToManyRelationShip() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity firstChild = new ChildEntity();
+        firstChild.setStringField("firstChild");
+        firstChild.setParentEntity(parentEntity);
+        ChildEntity secondChild = new ChildEntity();
+        secondChild.setStringField("secondChild");
+        secondChild.setParentEntity(parentEntity);
+        parentEntity.setChildren(List.of(firstChild, secondChild));
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        assertNotEquals(copy, parentEntity);
+        assertNotEquals(copy.getChildren(), parentEntity.getChildren());
+        ChildEntity copyOfFirstChild = copy.getChildren().stream().filter(c -> c.getStringField().equals("firstChild")).findAny().orElseThrow();
+        assertEquals(copyOfFirstChild.getParentEntity(), copy);
+        assertEquals(firstChild.getParentEntity(), parentEntity);
+        ChildEntity copyOfSecondChild = copy.getChildren().stream().filter(c -> c.getStringField().equals("secondChild")).findAny().orElseThrow();
+        assertEquals(copyOfSecondChild.getParentEntity(), copy);
+        assertEquals(secondChild.getParentEntity(), parentEntity);
+    }
+
+    @Test
+    void shouldCopyAOneToManyRelationShip() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity firstChild = new ChildEntity();
+        firstChild.setId(UUID.randomUUID());
+        firstChild.setBooleanField(Boolean.FALSE);
+        firstChild.setBoolField(true);
+        firstChild.setStringField("firstChild");
+        firstChild.setParentEntity(parentEntity);
+        ChildEntity secondChild = new ChildEntity();
+        secondChild.setId(UUID.randomUUID());
+        secondChild.setBoolField(Boolean.TRUE);
+        secondChild.setBoolField(true);
+        secondChild.setStringField("secondChild");
+        secondChild.setParentEntity(parentEntity);
+        parentEntity.setChildren(List.of(firstChild, secondChild));
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        ChildEntity copyOfFirstChild = copy.getChildren().stream().filter(c -> c.getStringField().equals("firstChild")).findAny().orElseThrow();
+        assertNull(copyOfFirstChild.getId());
+        assertEquals(Boolean.FALSE, firstChild.getBooleanField());
+        ChildEntity copyOfSecondChild = copy.getChildren().stream().filter(c -> c.getStringField().equals("secondChild")).findAny().orElseThrow();
+        assertEquals(copyOfSecondChild.getParentEntity(), copy);
+        assertNull(copyOfSecondChild.getId());
+    }
+
+    @Test
+    void shouldCopyMap() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setId(UUID.randomUUID());
+        MapValue testOneValue = new MapValue();
+        testOneValue.setStringValue("testOne");
+        testOneValue.setId(UUID.randomUUID());
+        MapValue testTwoValue = new MapValue();
+        testTwoValue.setId(UUID.randomUUID());
+        testTwoValue.setStringValue("testTwo");
+        parentEntity.getKeyValues().put(TestEnum.TEST_1, testOneValue);
+        parentEntity.getKeyValues().put(TestEnum.TEST_2, testTwoValue);
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        assertNotEquals(parentEntity, copy);
+        assertNull(copy.getKeyValues().get(TestEnum.TEST_1).getId());
+        assertNull(copy.getKeyValues().get(TestEnum.TEST_2).getId());
+    }
+
+    @Test
+    void shouldCopyAOneToOneRelationship() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setId(UUID.randomUUID());
+        parentEntity.setStringField("parent");
+        ChildEntity child = new ChildEntity();
+        child.setId(UUID.randomUUID());
+        child.setStringField("child");
+        child.setBoolField(true);
+        parentEntity.setChild(child);
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        assertNull(copy.getId());
+        assertNull(copy.getChild().getId());
+        assertEquals("parent", copy.getStringField());
+        assertEquals("child", copy.getChild().getStringField());
+        assertTrue(copy.getChild().boolField);
+        assertNotEquals(child, copy.getChild());
+    }
+
+    @Test
+    void shouldCopySharedReferencesOnce() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity sharedChild = new ChildEntity();
+        sharedChild.setStringField("shared");
+        parentEntity.setChild(sharedChild);
+        parentEntity.setChildren(List.of(sharedChild));
+        parentEntity.setChildrenAsSet(Set.of(sharedChild));
+
+        ParentEntity copy = CopyService.copy(parentEntity);
+
+        assertNotSame(sharedChild, copy.getChild());
+        assertSame(copy.getChild(), copy.getChildren().get(0));
+        assertSame(copy.getChild(), copy.getChildrenAsSet().iterator().next());
+    }
+
+    @Test
+    void shouldRewireReferencesToAnyAncestor() {
+        ParentEntity root = new ParentEntity();
+        ChildEntity child = new ChildEntity();
+        ParentEntity intermediate = new ParentEntity();
+        ChildEntity grandChild = new ChildEntity();
+        root.setChild(child);
+        child.setParentEntity(intermediate);
+        intermediate.setChild(grandChild);
+        grandChild.setParentEntity(root);
+
+        ParentEntity copy = CopyService.copy(root);
+
+        ParentEntity copyOfIntermediate = copy.getChild().getParentEntity();
+        assertNotSame(intermediate, copyOfIntermediate);
+        assertSame(copy, copyOfIntermediate.getChild().getParentEntity());
+    }
+
+    @Test
+    void shouldShareCopiesWithinASession() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity child = new ChildEntity();
+        child.setParentEntity(parentEntity);
+        parentEntity.setChildren(List.of(child));
+        CopySession session = new CopySession();
+
+        ChildEntity copyOfChild = CopyService.copy(child, session);
+        ParentEntity copyOfParent = CopyService.copy(parentEntity, session);
+
+        assertSame(copyOfParent, copyOfChild.getParentEntity());
+        assertSame(copyOfChild, copyOfParent.getChildren().get(0));
+        assertSame(copyOfChild, session.getCopy(child));
+        assertEquals(2, session.size());
+    }
+
+    @Test
+    void shouldCopyVeryDeepGraphsIteratively() {
+        ParentEntity root = new ParentEntity();
+        ParentEntity current = root;
+        for (int i = 0; i < 50_000; i++) {
+            ChildEntity child = new ChildEntity();
+            child.setStringField("child" + i);
+            current.setChild(child);
+            ParentEntity next = new ParentEntity();
+            child.setParentEntity(next);
+            current = next;
+        }
+
+        for (CopyTraversal traversal : List.of(CopyTraversal.DEPTH_FIRST, CopyTraversal.BREADTH_FIRST)) {
+            ParentEntity copy = CopyService.copy(root, CopyOptions.builder().traversal(traversal).build());
+
+            ParentEntity copied = copy;
+            int depth = 0;
+            while (copied.getChild() != null) {
+                assertEquals("child" + depth, copied.getChild().getStringField());
+                copied = copied.getChild().getParentEntity();
+                depth++;
+            }
+            assertEquals(50_000, depth);
+        }
+    }
+
+    @Test
+    void shouldCopyGraphsIterativelyLikeRecursively() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setStringField("parent");
+        ChildEntity firstChild = new ChildEntity();
+        firstChild.setStringField("firstChild");
+        firstChild.setParentEntity(parentEntity);
+        ChildEntity secondChild = new ChildEntity();
+        secondChild.setStringField("secondChild");
+        secondChild.setParentEntity(parentEntity);
+        parentEntity.setChildren(List.of(firstChild, secondChild));
+        parentEntity.setChildrenAsSet(Set.of(firstChild));
+        MapValue mapValue = new MapValue();
+        mapValue.setStringValue("value");
+        parentEntity.getKeyValues().put(TestEnum.TEST_1, mapValue);
+
+        ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().traversal(CopyTraversal.DEPTH_FIRST).build());
+
+        assertEquals("parent", copy.getStringField());
+        assertEquals(List.of("firstChild", "secondChild"), copy.getChildren().stream().map(ChildEntity::getStringField).toList());
+        assertTrue(copy.getChildren().stream().allMatch(c -> c.getParentEntity() == copy));
+        assertSame(copy.getChildren().get(0), copy.getChildrenAsSet().iterator().next());
+        assertNotSame(mapValue, copy.getKeyValues().get(TestEnum.TEST_1));
+        assertEquals("value", copy.getKeyValues().get(TestEnum.TEST_1).getStringValue());
+    }
+
+    @Test
+    void shouldCopyLargeCollectionsInParallel() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity sharedChild = new ChildEntity();
+        sharedChild.setStringField("shared");
+        sharedChild.setParentEntity(parentEntity);
+        List<ChildEntity> children = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ChildEntity child = new ChildEntity();
+            child.setStringField("child" + i);
+            child.setParentEntity(parentEntity);
+            children.add(child);
+        }
+        children.add(sharedChild);
+        parentEntity.setChildren(children);
+        parentEntity.setChild(sharedChild);
+        parentEntity.setChildrenAsSet(new HashSet<>(children));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().parallelThreshold(2).forkJoinPool(pool).build());
+
+            assertEquals(children.stream().map(ChildEntity::getStringField).toList(),
+                    copy.getChildren().stream().map(ChildEntity::getStringField).toList());
+            assertTrue(copy.getChildren().stream().allMatch(c -> c.getParentEntity() == copy));
+            assertSame(copy.getChild(), copy.getChildren().get(1_000));
+            assertEquals(new HashSet<>(copy.getChildren()), copy.getChildrenAsSet());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelCopiesRequireRecursiveTraversal() {
+        CopyOptions.Builder builder = CopyOptions.builder().parallelThreshold(100).traversal(CopyTraversal.DEPTH_FIRST);
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+        assertThrows(IllegalArgumentException.class, () -> CopyOptions.builder().parallelThreshold(-1));
+    }
+
+    @Test
+    void shouldCopyLargeCollectionsOnFirstAccess() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity sharedChild = new ChildEntity();
+        sharedChild.setParentEntity(parentEntity);
+        ChildEntity otherChild = new ChildEntity();
+        otherChild.setStringField("other");
+        parentEntity.setChild(sharedChild);
+        parentEntity.setChildren(new ArrayList<>(List.of(sharedChild, otherChild)));
+        parentEntity.setChildrenAsSet(new HashSet<>(Set.of(otherChild)));
+        parentEntity.getKeyValues().put(TestEnum.TEST_1, new MapValue());
+
+        ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().lazyCopyThreshold(2).build());
+
+        assertTrue(LazyCopy.isPending(copy.getChildren()));
+        // below the threshold
+        assertFalse(LazyCopy.isPending(copy.getChildrenAsSet()));
+        assertFalse(LazyCopy.isPending(copy.getKeyValues()));
+        assertSame(copy, copy.getChild().getParentEntity());
+
+        assertEquals(2, copy.getChildren().size());
+        assertFalse(LazyCopy.isPending(copy.getChildren()));
+        assertSame(copy.getChild(), copy.getChildren().get(0));
+        assertSame(copy.getChildrenAsSet().iterator().next(), copy.getChildren().get(1));
+        assertEquals("other", copy.getChildren().get(1).getStringField());
+
+        copy.getChildren().remove(0);
+        assertEquals(1, copy.getChildren().size());
+        assertEquals(2, parentEntity.getChildren().size());
+    }
+
+    @Test
+    void shouldCopyLazyCollectionsOfOneSessionOneAtATime() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        List<ChildEntity> children = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            children.add(new ChildEntity());
+        }
+        parentEntity.setChildren(children);
+        parentEntity.setChildrenAsSet(new HashSet<>(children));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int run = 0; run < 20; run++) {
+                ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().lazyCopyThreshold(2).build());
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> list = executor.submit(() -> {
+                    start.await();
+                    return copy.getChildren().size();
+                });
+                Future<?> set = executor.submit(() -> {
+                    start.await();
+                    return copy.getChildrenAsSet().size();
+                });
+                start.countDown();
+                list.get();
+                set.get();
+
+                // every child is copied once, whichever collection copied it
+                Set<ChildEntity> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+                copies.addAll(copy.getChildren());
+                copies.addAll(copy.getChildrenAsSet());
+                assertEquals(children.size(), copies.size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void lazyCopiesRequireRecursiveTraversal() {
+        CopyOptions.Builder builder = CopyOptions.builder().lazyCopyThreshold(100).traversal(CopyTraversal.BREADTH_FIRST);
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+        assertThrows(IllegalArgumentException.class, () -> CopyOptions.builder().lazyCopyThreshold(-1));
+    }
+
+    @Test
+    void shouldPreserveTheKindOfCollectionsAndMaps() {
+        CollectionsEntity entity = new CollectionsEntity();
+        entity.sortedNames = new TreeSet<>(Comparator.reverseOrder());
+        entity.sortedNames.addAll(List.of("a", "c", "b"));
+        entity.orderedChildren = new LinkedHashSet<>();
+        for (int i = 0; i < 20; i++) {
+            ChildEntity child = new ChildEntity();
+            child.setStringField("child" + i);
+            entity.orderedChildren.add(child);
+        }
+        entity.queue = new ArrayDeque<>(List.of("first", "second"));
+        entity.values = new HashMap<>(Map.of(TestEnum.TEST_2, new MapValue(), TestEnum.TEST_1, new MapValue()));
+        entity.ranking = new TreeMap<>(Map.of(2, "two", 1, "one"));
+
+        for (CopyTraversal traversal : CopyTraversal.values()) {
+            CollectionsEntity copy = CopyService.copy(entity, CopyOptions.builder().traversal(traversal).build());
+
+            assertInstanceOf(TreeSet.class, copy.sortedNames);
+            assertEquals(List.of("c", "b", "a"), new ArrayList<>(copy.sortedNames));
+            assertInstanceOf(LinkedHashSet.class, copy.orderedChildren);
+            assertEquals(entity.orderedChildren.stream().map(ChildEntity::getStringField).toList(),
+                    copy.orderedChildren.stream().map(ChildEntity::getStringField).toList());
+            assertInstanceOf(ArrayDeque.class, copy.queue);
+            assertEquals(List.of("first", "second"), new ArrayList<>(copy.queue));
+            assertInstanceOf(EnumMap.class, copy.values);
+            assertEquals(List.of(TestEnum.TEST_1, TestEnum.TEST_2), new ArrayList<>(copy.values.keySet()));
+            assertInstanceOf(TreeMap.class, copy.ranking);
+            assertEquals(List.of(1, 2), new ArrayList<>(copy.ranking.keySet()));
+        }
+    }
+
+    @Test
+    void shouldCreateTargetsWithCustomCollectionFactory() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setChildren(List.of(new ChildEntity()));
+        CollectionFactory linkedLists = new CollectionFactory() {
+            @Override
+            public Collection<Object> newCollection(Class<?> declaredType, Collection<?> source) {
+                return declaredType == List.class ? new LinkedList<>() : CollectionFactory.defaults().newCollection(declaredType, source);
+            }
+
+            @Override
+            public Map<Object, Object> newMap(Class<?> declaredType, Map<?, ?> source) {
+                return CollectionFactory.defaults().newMap(declaredType, source);
+            }
+        };
+
+        ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().collectionFactory(linkedLists).build());
+
+        assertInstanceOf(LinkedList.class, copy.getChildren());
+        assertEquals(1, copy.getChildren().size());
+    }
+
+    @Test
+    void shouldReportPathOfFailingEntity() {
+        ParentEntity parentEntity = new ParentEntity();
+        ChildEntity grandChild = new NoDefaultConstructorEntity("failing");
+        ParentEntity intermediate = new ParentEntity();
+        intermediate.setChildren(List.of(new ChildEntity(), new ChildEntity(), grandChild));
+        ChildEntity child = new ChildEntity();
+        child.setParentEntity(intermediate);
+        parentEntity.setChildren(List.of(new ChildEntity(), child));
+
+        CopyException exception = assertThrows(CopyException.class,
+                () -> CopyService.copy(parentEntity, CopyOptions.builder().traversal(CopyTraversal.DEPTH_FIRST).build()));
+
+        assertEquals("ParentEntity.children[1].parentEntity.children[2]", exception.getPath());
+        assertInstanceOf(NoSuchMethodException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldReturnOriginalInstanceIfCopySupportIsNotImplemented() {
+        ParentEntity old = new ParentEntity();
+        CopyNotSupported copyNotSupported = new CopyNotSupported();
+        old.setCopyNotSupported(copyNotSupported);
+
+        ParentEntity copy = CopyService.copy(old);
+
+        assertNotEquals(old, copy);
+        assertEquals(old.getCopyNotSupported(), copy.getCopyNotSupported());
+    }
+
+    @Test
+    void shouldCopyFieldsAsAnnotated() {
+        for (CopyOptions options : List.of(
+                CopyOptions.defaults(),
+                CopyOptions.builder().traversal(CopyTraversal.DEPTH_FIRST).build(),
+                CopyOptions.builder().strategy(CopyStrategy.BYTECODE).build())) {
+            AnnotatedEntity original = new AnnotatedEntity();
+            original.ignored = "ignored";
+            original.resetCounter = 7;
+            original.resetName = "reset";
+            ChildEntity child = new ChildEntity();
+            original.sharedChild = child;
+            original.sharedChildren = new ArrayList<>(List.of(child));
+            original.embedded = new CopyNotSupported();
+            original.embedded.setStringValue("embedded");
+            original.embeddedList = new ArrayList<>(List.of(original.embedded));
+
+            AnnotatedEntity copy = CopyService.copy(original, options);
+
+            assertNull(copy.ignored);
+            assertEquals(0, copy.resetCounter);
+            assertNull(copy.resetName);
+            assertSame(child, copy.sharedChild);
+            assertNotSame(original.sharedChildren, copy.sharedChildren);
+            assertSame(child, copy.sharedChildren.get(0));
+            assertNotSame(original.embedded, copy.embedded);
+            assertEquals("embedded", copy.embedded.getStringValue());
+            assertSame(copy.embedded, copy.embeddedList.get(0));
+        }
+    }
+
+    @Test
+    void copyPlanSkipsPersistenceManagedFields() {
+        List<String> fields = CopyPlan.of(ChildEntity.class).getFields().stream()
+                .map(CopyPlan.FieldPlan::getName)
+                .toList();
+
+        assertFalse(fields.contains("id"));
+        assertFalse(fields.contains("optLock"));
+        assertFalse(fields.contains("createDateTime"));
+        assertFalse(fields.contains("updateDateTime"));
+    }
+
+    @Test
+    void conflictingCopyAnnotationsAreRejected() {
+        assertThrows(IllegalStateException.class, () -> CopyPlan.of(ConflictingAnnotationsEntity.class));
+    }
+
+    @Test
+    void shouldCopyOnlyTheAssociationsInScope() {
+        for (CopyTraversal traversal : CopyTraversal.values()) {
+            ParentEntity parentEntity = new ParentEntity();
+            ChildEntity child = new ChildEntity();
+            child.setParentEntity(parentEntity);
+            child.setStringField("child");
+            ChildEntity other = new ChildEntity();
+            parentEntity.setChildren(new ArrayList<>(List.of(child)));
+            parentEntity.setChild(other);
+            parentEntity.getKeyValues().put(TestEnum.TEST_1, new MapValue());
+            CopyOptions options = CopyOptions.builder()
+                    .traversal(traversal)
+                    .scope(CopyScope.of("children", "!keyValues"))
+                    .build();
+
+            ParentEntity copy = CopyService.copy(parentEntity, options);
+
+            ChildEntity copyOfChild = copy.getChildren().get(0);
+            assertNotSame(child, copyOfChild, traversal::name);
+            assertEquals("child", copyOfChild.getStringField());
+            // the back-reference is out of scope, but its target was copied
+            assertSame(copy, copyOfChild.getParentEntity());
+            assertSame(other, copy.getChild());
+            assertNotSame(parentEntity.getKeyValues(), copy.getKeyValues());
+            assertSame(parentEntity.getKeyValues().get(TestEnum.TEST_1), copy.getKeyValues().get(TestEnum.TEST_1));
+        }
+    }
+
+    @Test
+    void shouldLeaveAssociationsOutOfScopeEmpty() {
+        CollectionsEntity original = new CollectionsEntity();
+        original.sortedNames = new TreeSet<>(Set.of("a", "b"));
+        original.orderedChildren = new LinkedHashSet<>(Set.of(new ChildEntity()));
+        original.values = new EnumMap<>(Map.of(TestEnum.TEST_1, new MapValue()));
+        CopyScope scope = CopyScope.builder().include("orderedChildren").outOfScopePolicy(OutOfScopePolicy.NULL).build();
+
+        CollectionsEntity copy = CopyService.copy(original, CopyOptions.builder().scope(scope).build());
+
+        assertNull(copy.values);
+        assertEquals(1, copy.orderedChildren.size());
+        assertNotSame(original.orderedChildren.iterator().next(), copy.orderedChildren.iterator().next());
+        // values are copied regardless of the scope
+        assertEquals(original.sortedNames, copy.sortedNames);
+        assertNotSame(original.sortedNames, copy.sortedNames);
+    }
+
+    @Test
+    void shouldCopyManyRootsIndependentlyAndLazily() {
+        for (CopyTraversal traversal : CopyTraversal.values()) {
+            ChildEntity shared = new ChildEntity();
+            List<ParentEntity> roots = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                ParentEntity parentEntity = new ParentEntity();
+                parentEntity.setIntField(i);
+                parentEntity.setChild(shared);
+                roots.add(parentEntity);
+            }
+            List<ParentEntity> taken = new ArrayList<>();
+
+            var copies = CopyService.copyAll(roots.stream().peek(taken::add), CopyOptions.builder().traversal(traversal).build());
+            assertTrue(taken.isEmpty());
+            List<ParentEntity> result = copies.toList();
+
+            assertEquals(List.of(0, 1, 2), result.stream().map(ParentEntity::getIntField).toList());
+            // every root gets a copy of its own
+            assertEquals(3, result.stream().map(ParentEntity::getChild).distinct().count());
+            assertTrue(result.stream().noneMatch(copy -> copy.getChild() == shared));
+        }
+    }
+
+    @Test
+    void shouldPassCopiesToTheSinkInChunks() {
+        List<ParentEntity> roots = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ParentEntity parentEntity = new ParentEntity();
+            parentEntity.setIntField(i);
+            parentEntity.setChildren(List.of(new ChildEntity()));
+            roots.add(parentEntity);
+        }
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            List<Integer> chunkSizes = new ArrayList<>();
+            List<ParentEntity> copies = new ArrayList<>();
+            var stream = parallel ? roots.parallelStream() : roots.stream();
+
+            long copied = CopyService.copyAll(stream, CopyOptions.defaults(), 25, chunk -> {
+                chunkSizes.add(chunk.size());
+                copies.addAll(chunk);
+            });
+
+            assertEquals(101, copied);
+            assertEquals(List.of(25, 25, 25, 25, 1), chunkSizes);
+            for (int i = 0; i < roots.size(); i++) {
+                assertEquals(i, copies.get(i).getIntField());
+                assertNotSame(roots.get(i), copies.get(i));
+                assertNotSame(roots.get(i).getChildren().get(0), copies.get(i).getChildren().get(0));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> CopyService.copyAll(roots, CopyOptions.defaults(), 0, chunk -> {
+        }));
+    }
+
+    @Test
+    void shouldCopyWithBytecodeStrategy() {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setId(UUID.randomUUID());
+        parentEntity.setStringField("parent");
+        parentEntity.setIntegerField(2);
+        parentEntity.setIntField(3);
+        ChildEntity child = new ChildEntity();
+        child.setBoolField(true);
+        child.setBooleanField(Boolean.TRUE);
+        child.setStringField("child");
+        child.setParentEntity(parentEntity);
+        parentEntity.setChildren(List.of(child));
+
+        ParentEntity copy = CopyService.copy(parentEntity, CopyOptions.builder().strategy(CopyStrategy.BYTECODE).build());
+
+        assertNull(copy.getId());
+        assertEquals("parent", copy.getStringField());
+        assertEquals(2, copy.getIntegerField());
+        assertEquals(3, copy.getIntField());
+        ChildEntity copyOfChild = copy.getChildren().get(0);
+        assertNotSame(child, copyOfChild);
+        assertTrue(copyOfChild.isBoolField());
+        assertEquals(Boolean.TRUE, copyOfChild.getBooleanField());
+        assertEquals("child", copyOfChild.getStringField());
+        assertSame(copy, copyOfChild.getParentEntity());
+    }
+
+    @Test
+    void bytecodePlanLeavesOnlyNonValueFieldsToReflection() {
+        List<String> remaining = BytecodeCopyPlan.of(ParentEntity.class).getRemainingFields().stream()
+                .map(CopyPlan.FieldPlan::getName)
+                .toList();
+
+        assertEquals(List.of("children", "childrenAsSet", "child", "copyNotSupported", "keyValues"), remaining);
+    }
+
+    @Test
+    void isCollection() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        Field children = parentEntity.getClass().getDeclaredField("children");
+        Field integerField = parentEntity.getClass().getDeclaredField("integerField");
+
+        assertTrue(CopyService.isCollection(children));
+        assertFalse(CopyService.isCollection(integerField));
+    }
+
+    @Test
+    void isOtherCopyableEntity() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        Field copyAbleEntity = parentEntity.getClass().getDeclaredField("child");
+        Field nonCopyAbleEntity = parentEntity.getClass().getDeclaredField("copyNotSupported");
+
+        assertTrue(CopyService.isOtherCopyableEntity(copyAbleEntity));
+        assertFalse(CopyService.isOtherCopyableEntity(nonCopyAbleEntity));
+    }
+
+    @Test
+    void filterFieldFromClass() {
+        var fields = CopyService.getAllFields(new ArrayList<>(), ParentEntity.class)
+                .stream()
+                .filter(CopyService.filterFieldsFromClass(BaseEntity.class))
+                .map(Field::getName)
+                .toList();
+
+        assertFalse(fields.contains("optLock"));
+        assertTrue(fields.contains("id"));
+    }
+
+    @Test
+    void shouldReferenceImmutableValuesAsIs() {
+        ImmutableTypes.register(Tag.class);
+        ValuesEntity original = new ValuesEntity();
+        original.range = new Range(1, 2);
+        original.tag = new Tag("tag");
+        original.moment = java.time.Instant.now();
+        original.level = TestEnum.TEST_2;
+        original.notCopied = new CopyNotSupported();
+
+        for (CopyStrategy strategy : CopyStrategy.values()) {
+            ValuesEntity copy = CopyService.copy(original, CopyOptions.builder().strategy(strategy).build());
+
+            assertSame(original.range, copy.range, strategy::name);
+            assertSame(original.tag, copy.tag);
+            assertSame(original.moment, copy.moment);
+            assertSame(original.level, copy.level);
+            assertSame(original.notCopied, copy.notCopied);
+        }
+
+        Map<String, Boolean> immutable = new LinkedHashMap<>();
+        CopyPlan.of(ValuesEntity.class).getFields().forEach(f -> immutable.put(f.getName(), f.isImmutable()));
+        assertEquals(Map.of("range", true, "tag", true, "moment", true, "level", true, "notCopied", false), immutable);
+        assertFalse(ImmutableTypes.isImmutable(ChildEntity.class));
+        assertFalse(ImmutableTypes.isImmutable(Object.class));
+        assertThrows(IllegalArgumentException.class, () -> ImmutableTypes.register(ChildEntity.class));
+    }
+
+    @Test
+    void shouldCopyCollectionsOfImmutableValuesInBulk() {
+        ValueCollectionsEntity original = new ValueCollectionsEntity();
+        original.names = new ArrayList<>(List.of("b", "a"));
+        original.ids = new HashSet<>(Set.of(UUID.randomUUID()));
+        original.orderedNames = new LinkedHashSet<>(List.of("y", "x"));
+        original.labels = new HashMap<>(Map.of(TestEnum.TEST_1, "one"));
+        original.fixed = List.of("fixed");
+
+        ValueCollectionsEntity copy = CopyService.copy(original);
+
+        assertNotSame(original.names, copy.names);
+        assertEquals(original.names, copy.names);
+        copy.names.add("c");
+        assertEquals(2, original.names.size());
+        assertEquals(original.ids, copy.ids);
+        assertEquals(List.of("y", "x"), List.copyOf(copy.orderedNames));
+        assertEquals(EnumMap.class, copy.labels.getClass());
+        assertTrue(CopyPlan.of(ValueCollectionsEntity.class).getFields().stream().allMatch(CopyPlan.FieldPlan::hasImmutableElements));
+        assertFalse(CopyPlan.of(ParentEntity.class).getFields().stream().anyMatch(CopyPlan.FieldPlan::hasImmutableElements));
+
+        ValueCollectionsEntity shared = CopyService.copy(original, CopyOptions.builder().valueCollectionPolicy(ValueCollectionPolicy.SHARE).build());
+
+        assertEquals(original.names, shared.names);
+        assertThrows(UnsupportedOperationException.class, () -> shared.names.add("c"));
+        assertEquals(original.ids, shared.ids);
+        assertThrows(UnsupportedOperationException.class, () -> shared.ids.clear());
+        assertEquals(original.labels, shared.labels);
+        // ordered, copied as with COPY
+        assertEquals(LinkedHashSet.class, shared.orderedNames.getClass());
+        assertSame(original.fixed, shared.fixed);
+
+        // the unmodifiable collections take no null
+        original.names.add(null);
+        ValueCollectionsEntity withNull = CopyService.copy(original, CopyOptions.builder().valueCollectionPolicy(ValueCollectionPolicy.SHARE).build());
+        assertEquals(original.names, withNull.names);
+        withNull.names.add("c");
+    }
+
+    @Test
+    void shouldInstantiateCopiesThroughCachedInstantiators() {
+        Supplier<?> instantiator = Instantiators.of(ChildEntity.class);
+        assertSame(instantiator, Instantiators.of(ChildEntity.class));
+        assertInstanceOf(ChildEntity.class, instantiator.get());
+        assertNotSame(instantiator.get(), instantiator.get());
+        assertNull(Instantiators.of(NoDefaultConstructorEntity.class));
+
+        Instantiators.register(BuiltEntity.class, () -> new BuiltEntity("built"));
+        Instantiators.register(type -> type == StrategyEntity.class ? () -> new StrategyEntity(0) : null);
+        BuiltEntity built = new BuiltEntity("original");
+        built.value = 7;
+        StrategyEntity fromStrategy = new StrategyEntity(3);
+
+        BuiltEntity copyOfBuilt = CopyService.copy(built);
+        StrategyEntity copyFromStrategy = CopyService.copy(fromStrategy);
+
+        assertNotSame(built, copyOfBuilt);
+        // every field is copied over the values of the instantiator
+        assertEquals("original", copyOfBuilt.name);
+        assertEquals(7, copyOfBuilt.value);
+        assertEquals(3, copyFromStrategy.count);
+    }
+
+    @Test
+    void copyPlanIsResolvedOncePerClass() {
+        assertSame(CopyPlan.of(ParentEntity.class), CopyPlan.of(ParentEntity.class));
+        assertNotSame(CopyPlan.of(ParentEntity.class), CopyPlan.of(ChildEntity.class));
+    }
+
+    @Test
+    void copyPlanClassifiesFieldsAndSkipsExcludedOnes() {
+        Map<String, CopyPlan.FieldKind> kinds = new LinkedHashMap<>();
+        CopyPlan.of(ParentEntity.class).getFields().forEach(f -> kinds.put(f.getName(), f.getKind()));
+
+        assertEquals(List.of("stringField", "integerField", "intField", "children", "childrenAsSet", "child", "copyNotSupported", "keyValues"), List.copyOf(kinds.keySet()));
+        assertEquals(CopyPlan.FieldKind.SCALAR, kinds.get("stringField"));
+        assertEquals(CopyPlan.FieldKind.PRIMITIVE, kinds.get("intField"));
+        assertEquals(CopyPlan.FieldKind.COLLECTION, kinds.get("children"));
+        assertEquals(CopyPlan.FieldKind.COLLECTION, kinds.get("childrenAsSet"));
+        assertEquals(CopyPlan.FieldKind.COPY_SUPPORT, kinds.get("child"));
+        assertEquals(CopyPlan.FieldKind.SCALAR, kinds.get("copyNotSupported"));
+        assertEquals(CopyPlan.FieldKind.MAP, kinds.get("keyValues"));
+    }
+
+    @Test
+    void getNewMapInstanceWhenValueIsNull() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setKeyValues(null);
+        Field field = ParentEntity.class.getDeclaredField("keyValues");
+        field.setAccessible(true);
+
+        Map<?, ?> newMapInstance = CopyService.getNewMapInstance(field, parentEntity);
+
+        assertNull(newMapInstance);
+    }
+
+    @Test
+    void getCollectionInstanceWhenValueIsNull() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        parentEntity.setChildren(null);
+        Field field = ParentEntity.class.getDeclaredField("children");
+        field.setAccessible(true);
+
+        Collection<?> collectionInstance = CopyService.getCollectionInstance(field, parentEntity);
+
+        assertNull(collectionInstance);
+    }
+
+    @Test
+    void getCollectionInstanceForList() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        List<ChildEntity> expectedChildren = new ArrayList<>();
+        parentEntity.setChildren(expectedChildren);
+        Field field = ParentEntity.class.getDeclaredField("children");
+        field.setAccessible(true);
+
+        Collection<?> collectionInstance = CopyService.getCollectionInstance(field, parentEntity);
+
+        expectedChildren.add(new ChildEntity());
+        assertNotEquals(expectedChildren, collectionInstance);
+    }
+
+    @Test
+    void getCollectionInstanceForSet() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        Set<ChildEntity> expectedChildren = new HashSet<>();
+        parentEntity.setChildrenAsSet(expectedChildren);
+        Field field = ParentEntity.class.getDeclaredField("childrenAsSet");
+        field.setAccessible(true);
+
+        Collection<?> collectionInstance = CopyService.getCollectionInstance(field, parentEntity);
+
+        expectedChildren.add(new ChildEntity());
+        assertNotEquals(expectedChildren, collectionInstance);
+    }
+
+    @Test
+    void getCollectionInstanceThrowsException() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        Field field = ParentEntity.class.getDeclaredField("keyValues");
+        field.setAccessible(true);
+
+        Exception exception = assertThrows(Exception.class, () -> CopyService.getCollectionInstance(field, parentEntity));
+
+        assertEquals("Unsupported Collection Type java.util.Map expected java.util.List or java.util.Set", exception.getMessage());
+    }
+
+    @Test
+    void getNewMapInstance() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        LinkedHashMap<TestEnum, MapValue> originalMap = new LinkedHashMap<>();
+        parentEntity.setKeyValues(originalMap);
+        Field field = ParentEntity.class.getDeclaredField("keyValues");
+        field.setAccessible(true);
+
+        Map<?, ?> newMapInstance = CopyService.getNewMapInstance(field, parentEntity);
+
+        originalMap.put(TestEnum.TEST_1, null);
+        assertNotEquals(newMapInstance, originalMap);
+    }
+
+    @Test
+    void getNewMapInstanceThrowsException() throws Exception {
+        ParentEntity parentEntity = new ParentEntity();
+        Field field = ParentEntity.class.getDeclaredField("intField");
+        field.setAccessible(true);
+
+        IllegalAccessException exception = assertThrows(IllegalAccessException.class, () -> CopyService.getNewMapInstance(field, parentEntity));
+
+        assertEquals("Unsupported type in intField expected a type of java.util.Map but was int", exception.getMessage());
+    }
+
+
+    private static class ParentEntity extends BaseEntityWithGeneratedId implements CopySupport {
+        private String stringField;
+        private Integer integerField;
+        private int intField;
+        private List<ChildEntity> children = new ArrayList<>();
+        private Set<ChildEntity> childrenAsSet = new HashSet<>();
+        private ChildEntity child;
+        private CopyNotSupported copyNotSupported;
+        private Map<TestEnum, MapValue> keyValues = new HashMap<>();
+
+        public String getStringField() {
+            return stringField;
+        }
+
+        public void setStringField(String stringField) {
+            this.stringField = stringField;
+        }
+
+        public Integer getIntegerField() {
+            return integerField;
+        }
+
+        public void setIntegerField(Integer integerField) {
+            this.integerField = integerField;
+        }
+
+        public int getIntField() {
+            return intField;
+        }
+
+        public void setIntField(int intField) {
+            this.intField = intField;
+        }
+
+        public List<ChildEntity> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<ChildEntity> children) {
+            this.children = children;
+        }
+
+        public ChildEntity getChild() {
+            return child;
+        }
+
+        public void setChild(ChildEntity child) {
+            this.child = child;
+        }
+
+        public Map<TestEnum, MapValue> getKeyValues() {
+            return keyValues;
+        }
+
+        public void setKeyValues(Map<TestEnum, MapValue> keyValues) {
+            this.keyValues = keyValues;
+        }
+
+        public CopyNotSupported getCopyNotSupported() {
+            return copyNotSupported;
+        }
+
+        public void setCopyNotSupported(CopyNotSupported copyNotSupported) {
+            this.copyNotSupported = copyNotSupported;
+        }
+
+        public Set<ChildEntity> getChildrenAsSet() {
+            return childrenAsSet;
+        }
+
+        public void setChildrenAsSet(Set<ChildEntity> childrenAsSet) {
+            this.childrenAsSet = childrenAsSet;
+        }
+    }
+
+    private static class ChildEntity extends BaseEntityWithGeneratedId implements CopySupport {
+        private ParentEntity parentEntity;
+        private Boolean booleanField;
+        private boolean boolField;
+        private String stringField;
+
+        public ParentEntity getParentEntity() {
+            return parentEntity;
+        }
+
+        public void setParentEntity(ParentEntity parentEntity) {
+            this.parentEntity = parentEntity;
+        }
+
+        public Boolean getBooleanField() {
+            return booleanField;
+        }
+
+        public void setBooleanField(Boolean booleanField) {
+            this.booleanField = booleanField;
+        }
+
+        public boolean isBoolField() {
+            return boolField;
+        }
+
+        public void setBoolField(boolean boolField) {
+            this.boolField = boolField;
+        }
+
+        public String getStringField() {
+            return stringField;
+        }
+
+        public void setStringField(String stringField) {
+            this.stringField = stringField;
+        }
+    }
+
+    private static class CollectionsEntity implements CopySupport {
+        private SortedSet<String> sortedNames;
+        private Set<ChildEntity> orderedChildren;
+        private Queue<String> queue;
+        private Map<TestEnum, MapValue> values;
+        private NavigableMap<Integer, String> ranking;
+    }
+
+    private static class AnnotatedEntity implements CopySupport {
+        @CopyIgnore
+        private String ignored;
+        @CopyReset
+        private int resetCounter;
+        @CopyReset
+        private String resetName;
+        @CopyShallow
+        private ChildEntity sharedChild;
+        @CopyShallow
+        private List<ChildEntity> sharedChildren;
+        @CopyDeep
+        private CopyNotSupported embedded;
+        @CopyDeep
+        private List<CopyNotSupported> embeddedList;
+    }
+
+    private static class ValuesEntity implements CopySupport {
+        private Range range;
+        private Tag tag;
+        private java.time.Instant moment;
+        private TestEnum level;
+        private CopyNotSupported notCopied;
+    }
+
+    private static class ValueCollectionsEntity implements CopySupport {
+        private List<String> names;
+        private Set<UUID> ids;
+        private Set<String> orderedNames;
+        private Map<TestEnum, String> labels;
+        private List<String> fixed;
+    }
+
+    private static class BuiltEntity implements CopySupport {
+        private String name;
+        private int value;
+
+        private BuiltEntity(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class StrategyEntity implements CopySupport {
+        private int count;
+
+        private StrategyEntity(int count) {
+            this.count = count;
+        }
+    }
+
+    private record Range(int from, int to) {
+    }
+
+    private static final class Tag {
+        private final String name;
+
+        private Tag(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class ConflictingAnnotationsEntity implements CopySupport {
+        @CopyShallow
+        @CopyReset
+        private String name;
+    }
+
+    private static class NoDefaultConstructorEntity extends ChildEntity {
+        NoDefaultConstructorEntity(String stringField) {
+            setStringField(stringField);
+        }
+    }
+
+    private enum TestEnum {
+        TEST_1, TEST_2
+    }
+
+    private static class MapValue extends BaseEntityWithGeneratedId implements CopySupport {
+        private String stringValue;
+
+        public String getStringValue() {
+            return stringValue;
+        }
+
+        public void setStringValue(String stringValue) {
+            this.stringValue = stringValue;
+        }
+    }
+
+    private static class CopyNotSupported extends BaseEntityWithGeneratedId {
+        private String stringValue;
+
+        public String getStringValue() {
+            return stringValue;
+        }
+
+        public void setStringValue(String stringValue) {
+            this.stringValue = stringValue;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package org.seazzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+
+    @Test
+    void shouldResolveMethodHandleAccessor() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(accessibleField("name"));
+
+        assertInstanceOf(MethodHandleFieldAccessor.class, accessor);
+    }
+
+    @Test
+    void shouldReadAndWriteReferenceField() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(accessibleField("name"));
+        Sample sample = new Sample();
+
+        accessor.set(sample, "value");
+
+        assertEquals("value", sample.name);
+        assertEquals("value", accessor.get(sample));
+    }
+
+    @Test
+    void shouldCopyPrimitiveFields() throws Exception {
+        Sample source = new Sample();
+        source.count = 42;
+        source.flag = true;
+        source.total = Long.MAX_VALUE;
+        Sample target = new Sample();
+
+        FieldAccessor.of(accessibleField("count")).copy(source, target);
+        FieldAccessor.of(accessibleField("flag")).copy(source, target);
+        FieldAccessor.of(accessibleField("total")).copy(source, target);
+
+        assertEquals(42, target.count);
+        assertTrue(target.flag);
+        assertEquals(Long.MAX_VALUE, target.total);
+    }
+
+    @Test
+    void shouldWriteFinalField() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(accessibleField("fixed"));
+        Sample target = new Sample();
+
+        accessor.set(target, "changed");
+
+        assertEquals("changed", accessor.get(target));
+    }
+
+    @Test
+    void shouldRejectValueOfWrongType() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(accessibleField("name"));
+
+        assertThrows(ClassCastException.class, () -> accessor.set(new Sample(), 1));
+    }
+
+    private static Field accessibleField(String name) throws NoSuchFieldException {
+        Field field = Sample.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static class Sample {
+        private String name;
+        private int count;
+        private boolean flag;
+        private long total;
+        private final String fixed = new String("fixed");
+    }
+}
@@ -0,0 +1,71 @@
+package org.seazzle.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.seazzle.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCopyMetricsTest {
+
+    @Test
+    void shouldCountEntitiesAndCollections() {
+        for (CopyTraversal traversal : CopyTraversal.values()) {
+            InMemoryCopyMetrics metrics = new InMemoryCopyMetrics();
+
+            CopyService.copy(order(3), CopyOptions.builder().traversal(traversal).listener(metrics).build());
+
+            assertEquals(1, metrics.getCopies());
+            assertTrue(metrics.getCopyNanos() > 0);
+            assertEquals(Map.of(Order.class, 1L, Item.class, 3L), metrics.getEntitiesCopied());
+            assertEquals(Set.of(Order.class, Item.class), metrics.getEntityNanos().keySet());
+            InMemoryCopyMetrics.SizeStatistics items = metrics.getSizes().get(Order.class.getName() + ".items");
+            assertEquals(1, items.getCount());
+            assertEquals(3, items.getMax());
+            assertEquals(0, metrics.getSizes().get(Order.class.getName() + ".attributes").getTotal());
+            assertTrue(metrics.getProxiesUnwrapped().isEmpty());
+            assertTrue(metrics.getReflectiveFallbacks().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldSumUpSeveralCopiesUntilReset() {
+        InMemoryCopyMetrics metrics = new InMemoryCopyMetrics();
+        CopyOptions options = CopyOptions.builder().listener(metrics).build();
+
+        CopyService.copy(order(1), options);
+        CopyService.copy(order(5), options);
+
+        assertEquals(2, metrics.getCopies());
+        assertEquals(6, metrics.getEntitiesCopied().get(Item.class));
+        InMemoryCopyMetrics.SizeStatistics items = metrics.getSizes().get(Order.class.getName() + ".items");
+        assertEquals(2, items.getCount());
+        assertEquals(6, items.getTotal());
+        assertEquals(5, items.getMax());
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getCopies());
+        assertTrue(metrics.getEntitiesCopied().isEmpty());
+    }
+
+    private static Order order(int items) {
+        Order order = new Order();
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.order = order;
+            order.items.add(item);
+        }
+        return order;
+    }
+
+    private static class Order implements CopySupport {
+        private List<Item> items = new ArrayList<>();
+        private Map<String, String> attributes = new HashMap<>();
+    }
+
+    private static class Item implements CopySupport {
+        private Order order;
+    }
+}
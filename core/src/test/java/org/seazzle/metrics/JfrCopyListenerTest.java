@@ -0,0 +1,54 @@
+package org.seazzle.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.seazzle.CopyOptions;
+import org.seazzle.CopyService;
+import org.seazzle.CopySupport;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrCopyListenerTest {
+
+    @Test
+    void shouldRecordCopyEvents(@TempDir Path directory) throws Exception {
+        Node root = new Node();
+        root.children.add(new Node());
+        root.children.add(new Node());
+        Path file = directory.resolve("copies.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.seazzle.Copy");
+            recording.enable("org.seazzle.EntityCopy");
+            recording.enable("org.seazzle.CollectionCopy");
+            recording.start();
+            CopyService.copy(root, CopyOptions.builder().listener(new JfrCopyListener()).build());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent copy = single(events, "org.seazzle.Copy");
+        assertEquals(Node.class.getName(), copy.getClass("rootType").getName());
+        assertEquals(3, copy.getInt("entities"));
+        assertEquals(3, events.stream().filter(e -> e.getEventType().getName().equals("org.seazzle.EntityCopy")).count());
+        assertEquals(3, events.stream().filter(e -> e.getEventType().getName().equals("org.seazzle.CollectionCopy")).count());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size());
+        return matching.get(0);
+    }
+
+    private static class Node implements CopySupport {
+        private List<Node> children = new ArrayList<>();
+    }
+}
@@ -0,0 +1,19 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+@Entity
+public class Address extends BaseEntityWithGeneratedId implements CopySupport {
+
+    private String city;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+}
@@ -0,0 +1,47 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToOne;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+public class Board extends BaseEntityWithGeneratedId implements CopySupport {
+
+    private String name;
+
+    @ManyToMany
+    private Set<Label> labels = new HashSet<>();
+
+    @OneToOne(fetch = FetchType.LAZY)
+    private Locker locker;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Set<Label> getLabels() {
+        return labels;
+    }
+
+    public void setLabels(Set<Label> labels) {
+        this.labels = labels;
+    }
+
+    public Locker getLocker() {
+        return locker;
+    }
+
+    public void setLocker(Locker locker) {
+        this.locker = locker;
+    }
+}
@@ -0,0 +1,127 @@
+package org.seazzle.persistence;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.CopyPersistPipeline;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyPersistPipelineTest {
+
+    private static final int EMPLOYEES = 25;
+    private static final int CATEGORIES = 2_000;
+
+    private static SessionFactory sessionFactory;
+    private static UUID departmentId;
+    private static UUID leafCategoryId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("pipeline");
+        sessionFactory.inTransaction(session -> {
+            Department department = new Department();
+            department.setName("research");
+            session.persist(department);
+            Address address = null;
+            for (int i = 0; i < EMPLOYEES; i++) {
+                // two employees share each address
+                if (i % 2 == 0) {
+                    address = new Address();
+                    address.setCity("city" + i);
+                    session.persist(address);
+                }
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(department);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            departmentId = department.getId();
+        });
+        sessionFactory.inTransaction(session -> {
+            Category parent = null;
+            for (int i = 0; i < CATEGORIES; i++) {
+                Category category = new Category();
+                category.setName("category" + i);
+                category.setParent(parent);
+                session.persist(category);
+                parent = category;
+            }
+            leafCategoryId = parent.getId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldCopyAndPersistTheAggregate() {
+        CopyPersistPipeline pipeline = sessionFactory.fromTransaction(session -> {
+            CopyPersistPipeline copyPipeline = CopyPersistPipeline.builder(session).flushInterval(10).build();
+            Object copyId = copyPipeline.copy(session.get(Department.class, departmentId));
+            assertNotEquals(departmentId, copyId);
+            // cleared after the last flush
+            assertEquals(0, session.getStatistics().getEntityCount());
+            return copyPipeline;
+        });
+
+        // the department, the employees and every shared address once
+        assertEquals(1 + EMPLOYEES + (EMPLOYEES + 1) / 2, pipeline.getPersistedCount());
+        assertTrue(sessionFactory.getStatistics().getFlushCount() >= 3);
+
+        try (Session session = sessionFactory.openSession()) {
+            List<Department> departments = session.createSelectionQuery("from Department where id <> :id", Department.class)
+                    .setParameter("id", departmentId)
+                    .getResultList();
+            assertEquals(1, departments.size());
+            Department copy = departments.get(0);
+            assertEquals("research", copy.getName());
+
+            List<Employee> employees = session.createSelectionQuery("from Employee e join fetch e.address where e.department = :department", Employee.class)
+                    .setParameter("department", copy)
+                    .getResultList();
+            assertEquals(EMPLOYEES, employees.size());
+            Set<UUID> addressIds = new HashSet<>();
+            for (Employee employee : employees) {
+                assertEquals("city" + (Integer.parseInt(employee.getName().substring("employee".length())) / 2 * 2), employee.getAddress().getCity());
+                addressIds.add(employee.getAddress().getId());
+            }
+            assertEquals((EMPLOYEES + 1) / 2, addressIds.size());
+            assertEquals(2L * EMPLOYEES, session.createSelectionQuery("select count(e) from Employee e", Long.class).getSingleResult());
+        }
+    }
+
+    @Test
+    void shouldCopyLongToOneChains() {
+        CopyPersistPipeline pipeline = sessionFactory.fromTransaction(session -> {
+            CopyPersistPipeline copyPipeline = CopyPersistPipeline.builder(session).flushInterval(1_000).build();
+            // the parents of the leaf are copied and persisted before it, without a stack frame per parent
+            copyPipeline.copy(session.get(Category.class, leafCategoryId));
+            return copyPipeline;
+        });
+
+        assertEquals(CATEGORIES, pipeline.getPersistedCount());
+        try (Session session = sessionFactory.openSession()) {
+            assertEquals(2L * CATEGORIES, session.createSelectionQuery("select count(c) from Category c", Long.class).getSingleResult());
+            assertEquals(2L, session.createSelectionQuery("select count(c) from Category c where c.parent is null", Long.class).getSingleResult());
+            assertEquals(2L, session.createSelectionQuery("select count(c) from Category c where c.name = 'category0'", Long.class).getSingleResult());
+        }
+    }
+
+    @Test
+    void shouldRejectAnEmptyFlushInterval() {
+        try (Session session = sessionFactory.openSession()) {
+            assertThrows(IllegalArgumentException.class, () -> CopyPersistPipeline.builder(session).flushInterval(0));
+        }
+    }
+}
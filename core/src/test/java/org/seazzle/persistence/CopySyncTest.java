@@ -0,0 +1,169 @@
+package org.seazzle.persistence;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.CopyCorrelation;
+import org.seazzle.CopyService;
+import org.seazzle.CopySession;
+import org.seazzle.FetchPlan;
+import org.seazzle.SyncResult;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopySyncTest {
+
+    private static SessionFactory sessionFactory;
+    private static UUID templateId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("sync");
+        sessionFactory.inTransaction(session -> {
+            Department template = new Department();
+            template.setName("research");
+            session.persist(template);
+            for (int i = 0; i < 3; i++) {
+                Address address = new Address();
+                address.setCity("city" + i);
+                session.persist(address);
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(template);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            templateId = template.getId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldUpdateTheChangedEntitiesOfAnExistingCopy() {
+        CopySession copySession = new CopySession();
+        Object[] draft = new Object[2];
+        sessionFactory.inTransaction(session -> {
+            Department copy = CopyService.copy(session.get(Department.class, templateId), copySession);
+            copySession.getCopiesInInsertOrder().values().forEach(copies -> copies.forEach(session::persist));
+            draft[0] = copy.getId();
+            draft[1] = CopyCorrelation.of(copySession);
+        });
+        UUID draftId = (UUID) draft[0];
+        CopyCorrelation correlation = (CopyCorrelation) draft[1];
+        assertEquals(1 + 3 + 3, correlation.size());
+
+        sessionFactory.inTransaction(session -> {
+            Department template = session.get(Department.class, templateId);
+            Map<String, Employee> employees = template.getEmployees().stream().collect(Collectors.toMap(Employee::getName, e -> e));
+            employees.get("employee0").setName("renamed");
+            session.remove(employees.get("employee2"));
+            Address address = new Address();
+            address.setCity("city3");
+            session.persist(address);
+            Employee added = new Employee();
+            added.setName("employee3");
+            added.setDepartment(template);
+            added.setAddress(address);
+            session.persist(added);
+        });
+
+        CopySession syncSession = new CopySession();
+        SyncResult result = sessionFactory.fromTransaction(session -> {
+            session.setJdbcBatchSize(10);
+            Department template = session.get(Department.class, templateId);
+            Department copy = session.get(Department.class, draftId);
+            SyncResult synced = CopyService.sync(template, copy, correlation, syncSession, session);
+            syncSession.getCopiesInInsertOrder().values().forEach(copies -> copies.forEach(session::persist));
+            synced.getRemoved().forEach(session::remove);
+            return synced;
+        });
+
+        // the added employee and its address
+        assertEquals(2, result.getCreated().size());
+        // the renamed employee, and the department whose inverse collection changed
+        assertEquals(2, result.getUpdated().size());
+        // the removed employee and its address
+        assertEquals(2, result.getRemoved().size());
+        // one employee and two addresses
+        assertEquals(3, result.getUnchangedCount());
+        assertEquals(1 + 3 + 3, CopyCorrelation.of(syncSession).size());
+
+        try (Session session = sessionFactory.openSession()) {
+            Department copy = session.get(Department.class, draftId);
+            Map<String, Employee> employees = copy.getEmployees().stream().collect(Collectors.toMap(Employee::getName, e -> e));
+            assertEquals(Set.of("renamed", "employee1", "employee3"), employees.keySet());
+            assertEquals(1, employees.get("renamed").getOptLock());
+            // not written at all
+            assertEquals(0, employees.get("employee1").getOptLock());
+            assertEquals("city3", employees.get("employee3").getAddress().getCity());
+            // the template and its copy
+            assertEquals(2L * 3, session.createSelectionQuery("select count(e) from Employee e", Long.class).getSingleResult());
+        }
+    }
+
+    @Test
+    void shouldNeitherLoadNorWriteTheCopiesOfUnchangedOriginals() {
+        UUID originalId = sessionFactory.fromTransaction(session -> {
+            Department original = new Department();
+            original.setName("sales");
+            session.persist(original);
+            for (int i = 0; i < 3; i++) {
+                Address address = new Address();
+                address.setCity("town" + i);
+                session.persist(address);
+                Employee employee = new Employee();
+                employee.setName("seller" + i);
+                employee.setDepartment(original);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            return original.getId();
+        });
+        CopySession copySession = new CopySession();
+        UUID draftId = sessionFactory.fromTransaction(session -> {
+            Department copy = CopyService.copy(session.get(Department.class, originalId), copySession);
+            copySession.getCopiesInInsertOrder().values().forEach(copies -> copies.forEach(session::persist));
+            return copy.getId();
+        });
+        CopyCorrelation correlation = CopyCorrelation.of(copySession);
+        sessionFactory.inTransaction(session -> session.createSelectionQuery("from Employee where name = 'seller0' and department.id = :id", Employee.class)
+                .setParameter("id", originalId)
+                .getSingleResult()
+                .setName("renamed"));
+
+        CopySession syncSession = new CopySession();
+        sessionFactory.inTransaction(session -> {
+            Department original = session.createSelectionQuery(FetchPlan.of(Department.class).toQuery() + " where r.id = :id", Department.class)
+                    .setParameter("id", originalId)
+                    .getSingleResult();
+            Department copy = session.get(Department.class, draftId);
+            sessionFactory.getStatistics().clear();
+
+            SyncResult result = CopyService.sync(original, copy, correlation, syncSession, session);
+
+            assertEquals(0, result.getCreated().size());
+            assertEquals(1, result.getUpdated().size());
+            assertEquals(0, result.getRemoved().size());
+            // the department, two employees and three addresses
+            assertEquals(6, result.getUnchangedCount());
+            // only the copy of the renamed employee is loaded, the others are references
+            assertEquals(1, sessionFactory.getStatistics().getEntityLoadCount());
+            assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+            assertFalse(Hibernate.isInitialized(copy.getEmployees()));
+        });
+        // the update of the renamed employee
+        assertEquals(2, sessionFactory.getStatistics().getPrepareStatementCount());
+        assertEquals(1, sessionFactory.getStatistics().getEntityUpdateCount());
+        assertEquals(1 + 3 + 3, CopyCorrelation.of(syncSession).size());
+    }
+}
@@ -0,0 +1,34 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToMany;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+public class Department extends BaseEntityWithGeneratedId implements CopySupport {
+
+    private String name;
+
+    @OneToMany(mappedBy = "department")
+    private List<Employee> employees = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<Employee> employees) {
+        this.employees = employees;
+    }
+}
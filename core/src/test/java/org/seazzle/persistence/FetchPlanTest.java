@@ -0,0 +1,137 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.EntityGraph;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchPlanTest {
+
+    private static SessionFactory sessionFactory;
+    private static UUID departmentId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("fetchPlan");
+        sessionFactory.inTransaction(session -> {
+            Department department = new Department();
+            department.setName("research");
+            session.persist(department);
+            for (int i = 0; i < 3; i++) {
+                Address address = new Address();
+                address.setCity("city" + i);
+                session.persist(address);
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(department);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            departmentId = department.getId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldDeriveThePathsACopyTouches() {
+        assertEquals(List.of("employees", "employees.address"), FetchPlan.of(Department.class).getPaths());
+        assertEquals(List.of("employees"), FetchPlan.of(Department.class, 1).getPaths());
+        assertEquals(List.of("department", "address"), FetchPlan.of(Employee.class).getPaths());
+        assertSame(FetchPlan.of(Department.class), FetchPlan.of(Department.class, FetchPlan.DEFAULT_MAX_DEPTH));
+        assertThrows(IllegalArgumentException.class, () -> FetchPlan.of(Department.class, 0));
+    }
+
+    @Test
+    void shouldFetchSelfReferencesUpToTheMaxDepth() {
+        // the inverse of the association a category was reached through is left out
+        assertEquals(List.of("parent", "parent.parent", "parent.parent.parent",
+                "children", "children.children", "children.children.children"), FetchPlan.of(Category.class, 3).getPaths());
+    }
+
+    @Test
+    void shouldLoadATreeWithAQuery() {
+        UUID rootId = sessionFactory.fromTransaction(session -> {
+            Category root = new Category();
+            root.setName("root");
+            session.persist(root);
+            Category parent = root;
+            for (int level = 1; level <= 3; level++) {
+                Category child = new Category();
+                child.setName("level" + level);
+                child.setParent(parent);
+                session.persist(child);
+                parent = child;
+            }
+            return root.getId();
+        });
+
+        try (Session session = sessionFactory.openSession()) {
+            Category root = session.createQuery(FetchPlan.of(Category.class, 3).toQuery() + " where r.id = :id", Category.class)
+                    .setParameter("id", rootId)
+                    .getSingleResult();
+            sessionFactory.getStatistics().clear();
+
+            CopySession copySession = new CopySession(CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.REPORT).build());
+            Category copy = CopyService.copy(root, copySession);
+
+            Category level3 = copy.getChildren().iterator().next().getChildren().iterator().next().getChildren().iterator().next();
+            assertEquals("level3", level3.getName());
+            // only the children of the deepest level are beyond the plan
+            assertEquals(Set.of("children.children.children.children"), copySession.getUninitializedPaths());
+            assertEquals(0, sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void shouldLoadTheAggregateWithAnEntityGraph() {
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getStatistics().clear();
+            EntityGraph<Department> graph = FetchPlan.of(Department.class).toEntityGraph(session);
+
+            Department department = session.find(Department.class, departmentId, Map.of("jakarta.persistence.fetchgraph", graph));
+
+            assertCopiedWithoutFurtherSelects(department);
+        }
+    }
+
+    @Test
+    void shouldLoadTheAggregateWithAJoinFetchQuery() {
+        String query = FetchPlan.of(Department.class).toQuery();
+        assertEquals("select r from Department r left join fetch r.employees j1 left join fetch j1.address j2", query);
+
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getStatistics().clear();
+
+            Department department = session.createSelectionQuery(query + " where r.id = :id", Department.class)
+                    .setParameter("id", departmentId)
+                    .getSingleResult();
+
+            assertCopiedWithoutFurtherSelects(department);
+        }
+    }
+
+    private static void assertCopiedWithoutFurtherSelects(Department department) {
+        CopySession copySession = new CopySession(CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.REPORT).build());
+
+        Department copy = CopyService.copy(department, copySession);
+
+        assertTrue(copySession.getUninitializedPaths().isEmpty());
+        assertEquals(3, copy.getEmployees().size());
+        assertTrue(copy.getEmployees().stream().allMatch(e -> e.getAddress().getCity().startsWith("city")));
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+}
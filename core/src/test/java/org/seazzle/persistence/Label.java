@@ -0,0 +1,19 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithAssignableId;
+
+@Entity
+public class Label extends BaseEntityWithAssignableId implements CopySupport {
+
+    private String text;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
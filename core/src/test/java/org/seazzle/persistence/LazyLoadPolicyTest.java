@@ -0,0 +1,162 @@
+package org.seazzle.persistence;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.seazzle.*;
+import org.seazzle.metrics.InMemoryCopyMetrics;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyLoadPolicyTest {
+
+    private static SessionFactory sessionFactory;
+    private static UUID departmentId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("lazy");
+        sessionFactory.inTransaction(session -> {
+            Department department = new Department();
+            department.setName("research");
+            session.persist(department);
+            for (int i = 0; i < 3; i++) {
+                Address address = new Address();
+                address.setCity("city" + i);
+                session.persist(address);
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(department);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            departmentId = department.getId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    void shouldInitializeEveryAssociationWhileCopying() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+
+            Department copy = CopyService.copy(department, CopyOptions.defaults());
+
+            assertCopied(copy);
+            // the department, its employees and one address per employee
+            assertEquals(5, sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void shouldReportUnwrappedProxies() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+            InMemoryCopyMetrics metrics = new InMemoryCopyMetrics();
+
+            CopyService.copy(department, CopyOptions.builder().listener(metrics).build());
+
+            assertEquals(3, metrics.getProxiesUnwrapped().get(Address.class));
+            assertEquals(3, metrics.getSizes().get(Department.class.getName() + ".employees").getTotal());
+        }
+    }
+
+    @Test
+    void shouldBatchInitializeEachAssociationPath() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+
+            Department copy = CopyService.copy(department, CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.BATCH_INITIALIZE).build());
+
+            assertCopied(copy);
+            // the department, the employees and all addresses at once
+            assertEquals(3, sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void shouldNotLoadAssociationsOutOfScope() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+            CopyOptions options = CopyOptions.builder()
+                    .lazyLoadPolicy(LazyLoadPolicy.BATCH_INITIALIZE)
+                    .scope(CopyScope.of("employees"))
+                    .build();
+
+            Department copy = CopyService.copy(department, options);
+
+            assertEquals(3, copy.getEmployees().size());
+            for (Employee employee : copy.getEmployees()) {
+                assertSame(copy, employee.getDepartment());
+                // the original, still uninitialized proxy
+                assertFalse(Hibernate.isInitialized(employee.getAddress()));
+            }
+            // the department and the employees
+            assertEquals(2, sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void shouldSkipUninitializedAssociations() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+
+            Department copy = CopyService.copy(department, CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.SKIP).build());
+
+            assertEquals("research", copy.getName());
+            assertTrue(copy.getEmployees().isEmpty());
+            assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void shouldReportUninitializedPaths() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, departmentId);
+            CopySession copySession = new CopySession(CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.REPORT).build());
+
+            CopyService.copy(department, copySession);
+
+            assertEquals(Set.of("employees"), copySession.getUninitializedPaths());
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.createSelectionQuery("from Department d join fetch d.employees", Department.class).getSingleResult();
+            CopySession copySession = new CopySession(CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.REPORT).build());
+
+            Department copy = CopyService.copy(department, copySession);
+
+            assertEquals(Set.of("employees.address"), copySession.getUninitializedPaths());
+            assertEquals(3, copy.getEmployees().size());
+            assertTrue(copy.getEmployees().stream().allMatch(e -> e.getAddress() == null && e.getDepartment() == copy));
+        }
+    }
+
+    private static void assertCopied(Department copy) {
+        assertEquals("research", copy.getName());
+        List<Employee> employees = copy.getEmployees();
+        assertEquals(3, employees.size());
+        for (Employee employee : employees) {
+            assertSame(copy, employee.getDepartment());
+            assertNull(employee.getId());
+            assertEquals("city" + employee.getName().substring("employee".length()), employee.getAddress().getCity());
+        }
+    }
+}
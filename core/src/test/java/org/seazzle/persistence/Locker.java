@@ -0,0 +1,31 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToOne;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+@Entity
+public class Locker extends BaseEntityWithGeneratedId implements CopySupport {
+
+    private String number;
+
+    @OneToOne(mappedBy = "locker")
+    private Board board;
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public void setBoard(Board board) {
+        this.board = board;
+    }
+}
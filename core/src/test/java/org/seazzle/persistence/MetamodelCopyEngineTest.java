@@ -0,0 +1,96 @@
+package org.seazzle.persistence;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.CopyOptions;
+import org.seazzle.LazyLoadPolicy;
+import org.seazzle.MetamodelCopyEngine;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetamodelCopyEngineTest {
+
+    private static SessionFactory sessionFactory;
+    private static UUID departmentId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("metamodel");
+        sessionFactory.inTransaction(session -> {
+            Department department = new Department();
+            department.setName("research");
+            session.persist(department);
+            Address address = new Address();
+            address.setCity("Berlin");
+            session.persist(address);
+            for (int i = 0; i < 2; i++) {
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(department);
+                employee.setAddress(address);
+                session.persist(employee);
+                department.getEmployees().add(employee);
+            }
+            departmentId = department.getId();
+        });
+        // increments the version
+        sessionFactory.inTransaction(session -> session.get(Department.class, departmentId).setName("development"));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldCopyThroughTheMappingMetamodel() {
+        MetamodelCopyEngine engine = MetamodelCopyEngine.of(sessionFactory);
+        Department copy = sessionFactory.fromTransaction(session -> {
+            Department department = session.get(Department.class, departmentId);
+            assertEquals(1, department.getOptLock());
+            assertNotNull(department.getCreateDateTime());
+            return engine.copy(department);
+        });
+
+        // identifier, version and generated timestamps are left to Hibernate
+        assertNull(copy.getId());
+        assertEquals(0, copy.getOptLock());
+        assertNull(copy.getCreateDateTime());
+        assertNull(copy.getUpdateDateTime());
+        assertEquals("development", copy.getName());
+
+        assertEquals(2, copy.getEmployees().size());
+        Employee first = copy.getEmployees().get(0);
+        Employee second = copy.getEmployees().get(1);
+        assertNull(first.getId());
+        assertSame(copy, first.getDepartment());
+        assertSame(copy, second.getDepartment());
+        // the shared address is copied once
+        assertNull(first.getAddress().getId());
+        assertEquals("Berlin", first.getAddress().getCity());
+        assertSame(first.getAddress(), second.getAddress());
+
+        sessionFactory.inTransaction(session -> {
+            session.persist(first.getAddress());
+            session.persist(copy);
+            copy.getEmployees().forEach(session::persist);
+        });
+        assertNotNull(copy.getId());
+        assertNotEquals(departmentId, copy.getId());
+        assertNotNull(copy.getCreateDateTime());
+    }
+
+    @Test
+    void shouldSkipUninitializedAssociations() {
+        MetamodelCopyEngine engine = MetamodelCopyEngine.of(sessionFactory, CopyOptions.builder().lazyLoadPolicy(LazyLoadPolicy.SKIP).build());
+        Department copy = sessionFactory.fromTransaction(session -> engine.copy(session.get(Department.class, departmentId)));
+
+        assertEquals("development", copy.getName());
+        // the new instance's empty list is kept
+        assertTrue(copy.getEmployees().isEmpty());
+    }
+}
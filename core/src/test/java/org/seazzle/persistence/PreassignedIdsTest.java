@@ -0,0 +1,118 @@
+package org.seazzle.persistence;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.CopyOptions;
+import org.seazzle.CopyService;
+import org.seazzle.CopySession;
+import org.seazzle.IdGenerator;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreassignedIdsTest {
+
+    private static final int TASKS = 6;
+
+    private static SessionFactory sessionFactory;
+    private static UUID projectId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("preassigned");
+        sessionFactory.inTransaction(session -> {
+            Project project = new Project();
+            project.setName("research");
+            session.persist(project);
+            for (int i = 0; i < TASKS; i++) {
+                Label label = new Label();
+                label.setText("label" + i);
+                session.persist(label);
+                Task task = new Task();
+                task.setName("task" + i);
+                task.setProject(project);
+                task.setLabel(label);
+                session.persist(task);
+            }
+            projectId = project.getId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldAssignIdsAndGroupCopiesInInsertOrder() {
+        CopySession copySession = new CopySession(CopyOptions.builder().idGenerator(IdGenerator.timeOrderedUuids()).build());
+        Project copy = sessionFactory.fromTransaction(session -> CopyService.copy(session.get(Project.class, projectId), copySession));
+
+        assertNotNull(copy.getId());
+        Set<UUID> ids = new HashSet<>();
+        ids.add(copy.getId());
+        for (Task task : copy.getTasks()) {
+            assertTrue(ids.add(task.getId()));
+            assertTrue(ids.add(task.getLabel().getId()));
+        }
+        assertEquals(1 + 2 * TASKS, ids.size());
+
+        Map<Class<?>, List<Object>> insertOrder = copySession.getCopiesInInsertOrder();
+        List<Class<?>> types = new ArrayList<>(insertOrder.keySet());
+        assertEquals(3, types.size());
+        // tasks reference both, projects and labels
+        assertEquals(Task.class, types.get(2));
+        assertEquals(TASKS, insertOrder.get(Task.class).size());
+        assertEquals(List.of(copy), insertOrder.get(Project.class));
+        assertNull(copy.getOptLock());
+
+        sessionFactory.inTransaction(session -> {
+            session.setJdbcBatchSize(TASKS);
+            insertOrder.values().forEach(copies -> copies.forEach(session::persist));
+        });
+        // the assigned ids are kept
+        try (Session session = sessionFactory.openSession()) {
+            Project persisted = session.get(Project.class, copy.getId());
+            assertEquals("research", persisted.getName());
+            assertEquals(0, persisted.getOptLock());
+            assertEquals(TASKS, persisted.getTasks().size());
+            for (Task task : persisted.getTasks()) {
+                assertTrue(ids.contains(task.getId()));
+                assertTrue(ids.contains(task.getLabel().getId()));
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectIdGeneratorsForGeneratedIds() {
+        CopySession copySession = new CopySession(CopyOptions.builder().idGenerator(IdGenerator.timeOrderedUuids()).build());
+        Department department = new Department();
+        department.setName("generated");
+
+        Throwable e = assertThrows(RuntimeException.class, () -> CopyService.copy(department, copySession));
+        while (!(e instanceof IllegalStateException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, e);
+        assertTrue(e.getMessage().contains(Department.class.getName()));
+    }
+
+    @Test
+    void shouldGenerateTimeOrderedUuids() {
+        IdGenerator generator = IdGenerator.timeOrderedUuids();
+        UUID previous = (UUID) generator.nextId(new Object());
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = (UUID) generator.nextId(new Object());
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+        long millis = previous.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60_000);
+    }
+}
@@ -0,0 +1,34 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToMany;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithAssignableId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+public class Project extends BaseEntityWithAssignableId implements CopySupport {
+
+    private String name;
+
+    @OneToMany(mappedBy = "project")
+    private List<Task> tasks = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+}
@@ -0,0 +1,199 @@
+package org.seazzle.persistence;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.seazzle.CopyService;
+import org.seazzle.SqlCopyEngine;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlCopyEngineTest {
+
+    private static final int EMPLOYEES = 7;
+
+    private static SessionFactory sessionFactory;
+    private static SqlCopyEngine engine;
+    private static UUID departmentId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.create("sql");
+        sessionFactory.inTransaction(session -> {
+            Department department = new Department();
+            department.setName("research");
+            session.persist(department);
+            Address address = null;
+            for (int i = 0; i < EMPLOYEES; i++) {
+                // two employees share each address
+                if (i % 2 == 0) {
+                    address = new Address();
+                    address.setCity("city" + i);
+                    session.persist(address);
+                }
+                Employee employee = new Employee();
+                employee.setName("employee" + i);
+                employee.setDepartment(department);
+                employee.setAddress(address);
+                session.persist(employee);
+            }
+            departmentId = department.getId();
+        });
+        // increments the version of the original
+        sessionFactory.inTransaction(session -> session.get(Department.class, departmentId).setName("development"));
+        engine = SqlCopyEngine.builder(sessionFactory).build();
+        engine.createIdMapTable();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void shouldCopyLikeCopyServiceAndPersist() {
+        Object sqlCopyId = sessionFactory.fromTransaction(session -> engine.copy(session, Department.class, departmentId));
+        assertInstanceOf(UUID.class, sqlCopyId);
+
+        UUID memoryCopyId = sessionFactory.fromTransaction(session -> {
+            Department copy = CopyService.copy(session.get(Department.class, departmentId));
+            Set<Address> addresses = Collections.newSetFromMap(new IdentityHashMap<>());
+            copy.getEmployees().forEach(employee -> addresses.add(employee.getAddress()));
+            addresses.forEach(session::persist);
+            session.persist(copy);
+            copy.getEmployees().forEach(session::persist);
+            return copy.getId();
+        });
+
+        try (Session session = sessionFactory.openSession()) {
+            Department sqlCopy = session.get(Department.class, sqlCopyId);
+            Department memoryCopy = session.get(Department.class, memoryCopyId);
+            assertNotEquals(departmentId, sqlCopy.getId());
+            assertEquals(describe(memoryCopy), describe(sqlCopy));
+            assertEquals(0, sqlCopy.getOptLock());
+            assertNotNull(sqlCopy.getCreateDateTime());
+            assertNotNull(sqlCopy.getUpdateDateTime());
+
+            // three aggregates, the original and the two copies
+            assertEquals(3L, session.createSelectionQuery("select count(d) from Department d", Long.class).getSingleResult());
+            assertEquals(3L * EMPLOYEES, session.createSelectionQuery("select count(e) from Employee e", Long.class).getSingleResult());
+            assertEquals(3L * ((EMPLOYEES + 1) / 2), session.createSelectionQuery("select count(a) from Address a", Long.class).getSingleResult());
+            // the id map is emptied after the copy
+            assertEquals(0L, session.createNativeQuery("select count(*) from " + SqlCopyEngine.DEFAULT_ID_MAP_TABLE, Long.class).getSingleResult());
+        }
+    }
+
+    @Test
+    void shouldSetSelfReferencesAfterTheInserts() {
+        UUID rootId = sessionFactory.fromTransaction(session -> {
+            Category root = new Category();
+            root.setName("root");
+            session.persist(root);
+            for (int i = 0; i < 2; i++) {
+                Category child = new Category();
+                child.setName("child" + i);
+                child.setParent(root);
+                session.persist(child);
+                Category grandchild = new Category();
+                grandchild.setName("grandchild" + i);
+                grandchild.setParent(child);
+                session.persist(grandchild);
+            }
+            return root.getId();
+        });
+
+        Object copyId = sessionFactory.fromTransaction(session -> engine.copy(session, Category.class, rootId));
+
+        try (Session session = sessionFactory.openSession()) {
+            Category copy = session.get(Category.class, copyId);
+            assertEquals("root", copy.getName());
+            assertNull(copy.getParent());
+            Map<String, Category> children = new TreeMap<>();
+            copy.getChildren().forEach(child -> children.put(child.getName(), child));
+            assertEquals(Set.of("child0", "child1"), children.keySet());
+            for (int i = 0; i < 2; i++) {
+                Category child = children.get("child" + i);
+                // the inserted null was replaced by the copy of the parent
+                assertSame(copy, child.getParent());
+                assertEquals(1, child.getChildren().size());
+                Category grandchild = child.getChildren().iterator().next();
+                assertEquals("grandchild" + i, grandchild.getName());
+                assertSame(child, grandchild.getParent());
+            }
+            assertEquals(2L * 5, session.createSelectionQuery("select count(c) from Category c where c.name like 'root' or c.name like '%child%'", Long.class)
+                    .getSingleResult());
+        }
+    }
+
+    @Test
+    void shouldBindTheValuesOfIgnoredAndResetFields() {
+        UUID[] ids = sessionFactory.fromTransaction(session -> {
+            Label label = new Label();
+            label.setText("urgent");
+            session.persist(label);
+            Ticket ticket = new Ticket();
+            ticket.setName("outage");
+            ticket.setStatus("closed");
+            ticket.setPriority(3);
+            ticket.setLabel(label);
+            session.persist(ticket);
+            return new UUID[]{ticket.getId(), label.getId()};
+        });
+        long labels = countLabels();
+
+        Object copyId = sessionFactory.fromTransaction(session -> engine.copy(session, Ticket.class, ids[0]));
+
+        try (Session session = sessionFactory.openSession()) {
+            Ticket copy = session.get(Ticket.class, copyId);
+            assertEquals("outage", copy.getName());
+            // the value of a new instance, respectively the reset value, not the value of the original
+            assertEquals("open", copy.getStatus());
+            assertEquals(0, copy.getPriority());
+            // the shallow reference keeps the original label
+            assertEquals(ids[1], copy.getLabel().getId());
+        }
+        assertEquals(labels, countLabels());
+    }
+
+    @Test
+    void shouldRejectManyToManyAssociations() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> sessionFactory.inTransaction(session -> engine.copy(session, Board.class, UUID.randomUUID())));
+        assertTrue(exception.getMessage().contains("Board.labels"), exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectInverseOneToOneAssociations() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> sessionFactory.inTransaction(session -> engine.copy(session, Locker.class, UUID.randomUUID())));
+        assertTrue(exception.getMessage().contains("Locker.board"), exception.getMessage());
+    }
+
+    private static long countLabels() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("select count(l) from Label l", Long.class).getSingleResult();
+        }
+    }
+
+    /**
+     * @return the state of the aggregate without identifiers, with the addresses numbered in the order of the employees
+     */
+    private static List<String> describe(Department department) {
+        List<String> description = new ArrayList<>();
+        description.add(department.getName() + "@" + department.getOptLock());
+        List<Employee> employees = new ArrayList<>(department.getEmployees());
+        employees.sort(Comparator.comparing(Employee::getName));
+        Map<UUID, Integer> addresses = new HashMap<>();
+        for (Employee employee : employees) {
+            assertSame(department, employee.getDepartment());
+            Address address = employee.getAddress();
+            int number = addresses.computeIfAbsent(address.getId(), id -> addresses.size());
+            description.add(employee.getName() + " " + employee.getOptLock() + " " + address.getCity() + "#" + number + " " + address.getOptLock());
+        }
+        return description;
+    }
+}
@@ -0,0 +1,32 @@
+package org.seazzle.persistence;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+/**
+ * An in-memory H2 database with the entities of this package.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    static SessionFactory create(String name) {
+        return new Configuration()
+                .addAnnotatedClass(Department.class)
+                .addAnnotatedClass(Employee.class)
+                .addAnnotatedClass(Address.class)
+                .addAnnotatedClass(Project.class)
+                .addAnnotatedClass(Task.class)
+                .addAnnotatedClass(Label.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Ticket.class)
+                .addAnnotatedClass(Board.class)
+                .addAnnotatedClass(Locker.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .setProperty("hibernate.session.events.log", "false")
+                .buildSessionFactory();
+    }
+}
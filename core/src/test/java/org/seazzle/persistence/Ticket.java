@@ -0,0 +1,58 @@
+package org.seazzle.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import org.seazzle.CopyIgnore;
+import org.seazzle.CopyReset;
+import org.seazzle.CopyShallow;
+import org.seazzle.CopySupport;
+import org.seazzle.base.BaseEntityWithGeneratedId;
+
+@Entity
+public class Ticket extends BaseEntityWithGeneratedId implements CopySupport {
+
+    private String name;
+
+    @CopyIgnore
+    private String status = "open";
+
+    @CopyReset
+    private int priority;
+
+    @CopyShallow
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Label label;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public Label getLabel() {
+        return label;
+    }
+
+    public void setLabel(Label label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,114 @@
+package org.seazzle.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code XxxCopier} for every class implementing {@code org.seazzle.CopySupport} and registers all of them
+ * in {@code META-INF/services/org.seazzle.Copier}. Classes whose fields cannot be reached from generated code (private
+ * fields without accessors, private nested classes, ...) are reported as a note and keep being copied by reflection.
+ */
+@SupportedAnnotationTypes("*")
+public class CopierProcessor extends AbstractProcessor {
+
+    static final String COPY_SUPPORT = "org.seazzle.CopySupport";
+    static final String SERVICE_FILE = "META-INF/services/org.seazzle.Copier";
+
+    private final Set<String> copiers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement copySupport = processingEnv.getElementUtils().getTypeElement(COPY_SUPPORT);
+        if (copySupport == null) {
+            // entity-copy-support is not on the classpath, nothing to do
+            return false;
+        }
+
+        if (roundEnv.processingOver()) {
+            if (!copiers.isEmpty()) {
+                writeServiceFile();
+            }
+            return false;
+        }
+
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            process(type, copySupport.asType());
+        }
+        // the processor looks at all types, it never claims an annotation
+        return false;
+    }
+
+    private void process(TypeElement type, TypeMirror copySupport) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            process(nested, copySupport);
+        }
+
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), copySupport)) {
+            return;
+        }
+
+        try {
+            CopierWriter writer = new CopierWriter(processingEnv, type);
+            String source = writer.write();
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(writer.getQualifiedCopierName(), type);
+            try (Writer out = file.openWriter()) {
+                out.write(source);
+            }
+            copiers.add(writer.getQualifiedCopierName());
+        } catch (UnsupportedEntityException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "No copier generated for " + type.getQualifiedName() + ", it is copied by reflection: " + e.getMessage(), type);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write the copier of " + type.getQualifiedName() + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void writeServiceFile() {
+        Set<String> entries = new TreeSet<>(copiers);
+        // keep the copiers of an earlier, incremental compilation
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                reader.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(entries::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no service file yet
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = file.openWriter()) {
+                for (String entry : entries) {
+                    out.write(entry);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+}
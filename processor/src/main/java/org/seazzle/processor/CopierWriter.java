@@ -0,0 +1,266 @@
+package org.seazzle.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the source of the copier of one entity class. The field list mirrors {@code CopyPlan}: all non-static
+ * fields of the class and its superclasses, except those annotated with {@code @CopyIgnore} or maintained by the
+ * persistence provider without another copy annotation. Annotations are matched by name, the processor does not
+ * depend on the core or JPA classes.
+ */
+class CopierWriter {
+
+    static final String COPY_IGNORE = "org.seazzle.CopyIgnore";
+
+    // copy annotation -> FieldCopyMode constant
+    static final Map<String, String> COPY_MODES = Map.of(
+            "org.seazzle.CopyDeep", "DEEP",
+            "org.seazzle.CopyShallow", "SHALLOW",
+            "org.seazzle.CopyReset", "RESET");
+
+    static final Set<String> PERSISTENCE_MANAGED = Set.of(
+            "jakarta.persistence.Id",
+            "jakarta.persistence.EmbeddedId",
+            "jakarta.persistence.GeneratedValue",
+            "jakarta.persistence.Version",
+            "org.hibernate.annotations.CreationTimestamp",
+            "org.hibernate.annotations.UpdateTimestamp");
+
+    private final Types types;
+    private final Elements elements;
+    private final TypeElement entity;
+    private final String packageName;
+    private final String copierName;
+
+    CopierWriter(ProcessingEnvironment processingEnv, TypeElement entity) {
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.entity = entity;
+        this.packageName = elements.getPackageOf(entity).getQualifiedName().toString();
+
+        // Outer.Inner gets Outer_InnerCopier
+        StringBuilder name = new StringBuilder(entity.getSimpleName());
+        for (Element enclosing = entity.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        this.copierName = name + "Copier";
+    }
+
+    String getQualifiedCopierName() {
+        return packageName.isEmpty() ? copierName : packageName + "." + copierName;
+    }
+
+    String write() throws UnsupportedEntityException {
+        checkEntity();
+
+        String entityName = entity.getQualifiedName().toString();
+        List<String> fields = new ArrayList<>();
+        for (VariableElement field : collectFields()) {
+            fields.add(writeField(entityName, field));
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(CopierProcessor.class.getName()).append("\")\n");
+        source.append("public final class ").append(copierName).append(" implements org.seazzle.Copier<").append(entityName).append("> {\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public Class<").append(entityName).append("> type() {\n");
+        source.append("        return ").append(entityName).append(".class;\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public ").append(entityName).append(" newInstance() {\n");
+        source.append("        return new ").append(entityName).append("();\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("    public java.util.List<org.seazzle.GeneratedField<").append(entityName).append(">> fields() {\n");
+        source.append("        return java.util.List.of(");
+        source.append(String.join(",", fields));
+        source.append(fields.isEmpty() ? ");\n" : "\n        );\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private void checkEntity() throws UnsupportedEntityException {
+        if (!entity.getTypeParameters().isEmpty()) {
+            throw new UnsupportedEntityException("generic entity classes are not supported");
+        }
+        for (Element element = entity; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedEntityException(element.getSimpleName() + " is private");
+            }
+            if (element.getEnclosingElement() instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC)) {
+                throw new UnsupportedEntityException(element.getSimpleName() + " is an inner class");
+            }
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(entity.getEnclosedElements());
+        boolean noArgConstructor = constructors.stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+        if (!noArgConstructor) {
+            throw new UnsupportedEntityException("there is no accessible no-arg constructor");
+        }
+    }
+
+    private List<VariableElement> collectFields() throws UnsupportedEntityException {
+        // same order as CopyService.getAllFields: the declared fields first, then the ones of the superclass
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement type = entity; type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && isCopied(field)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private boolean isCopied(VariableElement field) throws UnsupportedEntityException {
+        List<String> annotations = annotationNames(field);
+        long copyAnnotations = annotations.stream().filter(a -> a.equals(COPY_IGNORE) || COPY_MODES.containsKey(a)).count();
+        if (copyAnnotations > 1) {
+            throw new UnsupportedEntityException("field " + field.getSimpleName() + " has conflicting copy annotations");
+        }
+        if (annotations.contains(COPY_IGNORE)) {
+            return false;
+        }
+        return copyAnnotations == 1 || annotations.stream().noneMatch(PERSISTENCE_MANAGED::contains);
+    }
+
+    private static List<String> annotationNames(VariableElement field) {
+        List<String> names = new ArrayList<>();
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            names.add(((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString());
+        }
+        return names;
+    }
+
+    private String writeField(String entityName, VariableElement field) throws UnsupportedEntityException {
+        String name = field.getSimpleName().toString();
+        TypeMirror fieldType = types.erasure(field.asType());
+        String typeName = fieldType.toString();
+        String castType = fieldType.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) fieldType).getQualifiedName().toString() : typeName;
+
+        String read = readExpression(field);
+        String write = writeStatement(field, "(" + castType + ") value");
+        if (read == null || write == null) {
+            throw new UnsupportedEntityException("field " + name + " is neither accessible nor has an accessible getter and setter");
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("\n                org.seazzle.GeneratedField.<").append(entityName).append(">of(\"").append(name).append("\", ")
+                .append(typeName).append(".class, ")
+                .append("entity -> ").append(read.replace("$", "entity")).append(", ")
+                .append("(entity, value) -> ").append(write.replace("$", "entity"));
+        if (fieldType.getKind().isPrimitive()) {
+            // transfer primitives without boxing
+            source.append(", (source, target) -> ").append(writeStatement(field, read.replace("$", "source")).replace("$", "target"));
+        }
+        source.append(")");
+        List<String> typeArguments = typeArgumentsOf(field.asType());
+        if (!typeArguments.isEmpty()) {
+            // spares CopyPlan the reflective lookup of the element types
+            source.append(".withTypeArguments(").append(String.join(", ", typeArguments)).append(")");
+        }
+        for (String annotation : annotationNames(field)) {
+            if (COPY_MODES.containsKey(annotation)) {
+                source.append(".withMode(org.seazzle.FieldCopyMode.").append(COPY_MODES.get(annotation)).append(")");
+            }
+        }
+        return source.toString();
+    }
+
+    /**
+     * @return the erased type arguments as class literals, {@code Object} for unbounded wildcards
+     */
+    private List<String> typeArgumentsOf(TypeMirror type) {
+        List<String> typeArguments = new ArrayList<>();
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (argument.getKind() == TypeKind.WILDCARD) {
+                    TypeMirror bound = ((WildcardType) argument).getExtendsBound();
+                    argument = bound != null ? bound : elements.getTypeElement(Object.class.getName()).asType();
+                }
+                typeArguments.add(types.erasure(argument) + ".class");
+            }
+        }
+        return typeArguments;
+    }
+
+    // $ stands for the entity instance
+    private String readExpression(VariableElement field) {
+        if (isAccessible(field)) {
+            return "$." + field.getSimpleName();
+        }
+        String capitalized = capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(entity))) {
+            String methodName = method.getSimpleName().toString();
+            if ((methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && isAccessible(method)
+                    && types.isSameType(types.erasure(method.getReturnType()), types.erasure(field.asType()))) {
+                return "$." + methodName + "()";
+            }
+        }
+        return null;
+    }
+
+    private String writeStatement(VariableElement field, String value) {
+        if (isAccessible(field) && !field.getModifiers().contains(Modifier.FINAL)) {
+            return "$." + field.getSimpleName() + " = " + value;
+        }
+        String setterName = "set" + capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(entity))) {
+            if (method.getSimpleName().contentEquals(setterName)
+                    && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && isAccessible(method)
+                    && types.isSameType(types.erasure(method.getParameters().get(0).asType()), types.erasure(field.asType()))) {
+                return "$." + setterName + "(" + value + ")";
+            }
+        }
+        return null;
+    }
+
+    // the copier is generated into the package of the entity, it is no subclass
+    private boolean isAccessible(Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) || elements.getPackageOf(member).getQualifiedName().contentEquals(packageName);
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
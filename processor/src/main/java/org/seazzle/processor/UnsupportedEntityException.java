@@ -0,0 +1,11 @@
+package org.seazzle.processor;
+
+/**
+ * Thrown while generating a copier for an entity that generated code cannot copy.
+ */
+class UnsupportedEntityException extends Exception {
+
+    UnsupportedEntityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,161 @@
+package org.seazzle.processor;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.seazzle.CopyPlan;
+import org.seazzle.CopyService;
+import org.seazzle.FieldCopyMode;
+import org.seazzle.GeneratedField;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopierProcessorTest {
+
+    private static final String PARENT = """
+            package sample;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            public class Parent extends org.seazzle.base.BaseEntityWithGeneratedId implements org.seazzle.CopySupport {
+                String name;
+                private int count;
+                private List<Child> children = new ArrayList<>();
+
+                public int getCount() { return count; }
+                public void setCount(int count) { this.count = count; }
+                public List<Child> getChildren() { return children; }
+                public void setChildren(List<Child> children) { this.children = children; }
+                public String getName() { return name; }
+            }
+            """;
+
+    private static final String CHILD = """
+            package sample;
+
+            public class Child extends org.seazzle.base.BaseEntityWithGeneratedId implements org.seazzle.CopySupport {
+                private Parent parent;
+                private boolean active;
+
+                public Parent getParent() { return parent; }
+                public void setParent(Parent parent) { this.parent = parent; }
+                public boolean isActive() { return active; }
+                public void setActive(boolean active) { this.active = active; }
+
+                public static class Detail implements org.seazzle.CopySupport {
+                    public String text;
+                    @org.seazzle.CopyShallow
+                    public java.util.List<String> tags;
+                    @org.seazzle.CopyIgnore
+                    public String cached;
+                }
+
+                private static class Hidden implements org.seazzle.CopySupport {
+                }
+            }
+            """;
+
+    private static final String NO_ACCESSORS = """
+            package sample;
+
+            public class NoAccessors implements org.seazzle.CopySupport {
+                private String secret;
+            }
+            """;
+
+    @TempDir
+    static Path output;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private static ClassLoader classLoader;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        Path sources = Files.createDirectories(output.resolve("src/sample"));
+        Files.writeString(sources.resolve("Parent.java"), PARENT);
+        Files.writeString(sources.resolve("Child.java"), CHILD);
+        Files.writeString(sources.resolve("NoAccessors.java"), NO_ACCESSORS);
+        Path classes = Files.createDirectories(output.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(
+                    sources.resolve("Parent.java").toFile(), sources.resolve("Child.java").toFile(), sources.resolve("NoAccessors.java").toFile());
+            List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, collector, options, null, units);
+            task.setProcessors(List.of(new CopierProcessor()));
+            assertTrue(task.call(), () -> collector.getDiagnostics().toString());
+        }
+        diagnostics = collector.getDiagnostics();
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, CopierProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    void shouldGenerateCopiersAndRegisterThem() throws IOException {
+        List<String> services = Files.readAllLines(output.resolve("classes").resolve(CopierProcessor.SERVICE_FILE));
+
+        assertEquals(List.of("sample.ChildCopier", "sample.Child_DetailCopier", "sample.ParentCopier"), services);
+    }
+
+    @Test
+    void shouldReportEntitiesWhichCannotBeGenerated() {
+        assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.NOTE
+                && d.getMessage(null).contains("sample.NoAccessors") && d.getMessage(null).contains("secret")));
+        assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.NOTE
+                && d.getMessage(null).contains("sample.Child.Hidden")));
+        assertFalse(new File(output.resolve("classes/sample/NoAccessorsCopier.class").toString()).exists());
+    }
+
+    @Test
+    void shouldCopyThroughGeneratedCopiers() throws Exception {
+        Class<?> parentType = classLoader.loadClass("sample.Parent");
+        Class<?> childType = classLoader.loadClass("sample.Child");
+        Object parent = parentType.getConstructor().newInstance();
+        parentType.getMethod("setId", UUID.class).invoke(parent, UUID.randomUUID());
+        parentType.getMethod("setCount", int.class).invoke(parent, 3);
+        Object child = childType.getConstructor().newInstance();
+        childType.getMethod("setActive", boolean.class).invoke(child, true);
+        childType.getMethod("setParent", parentType).invoke(child, parent);
+        @SuppressWarnings("unchecked")
+        List<Object> children = (List<Object>) parentType.getMethod("getChildren").invoke(parent);
+        children.add(child);
+
+        Object copy = CopyService.copy(parent);
+
+        assertTrue(CopyPlan.of(parentType).isGenerated());
+        assertTrue(CopyPlan.of(parentType).getFields().stream().allMatch(f -> f.getAccessor() instanceof GeneratedField));
+        assertEquals(childType, CopyPlan.of(parentType).getFields().stream().filter(f -> f.getName().equals("children")).findFirst().orElseThrow().getElementType());
+        assertNotSame(parent, copy);
+        assertNull(parentType.getMethod("getId").invoke(copy));
+        assertEquals(3, parentType.getMethod("getCount").invoke(copy));
+        Object copyOfChild = ((List<?>) parentType.getMethod("getChildren").invoke(copy)).get(0);
+        assertNotSame(child, copyOfChild);
+        assertEquals(true, childType.getMethod("isActive").invoke(copyOfChild));
+        assertSame(copy, childType.getMethod("getParent").invoke(copyOfChild));
+    }
+
+    @Test
+    void shouldApplyCopyAnnotationsInGeneratedCopiers() throws Exception {
+        Class<?> detailType = classLoader.loadClass("sample.Child$Detail");
+
+        List<CopyPlan.FieldPlan> fields = CopyPlan.of(detailType).getFields();
+
+        assertTrue(CopyPlan.of(detailType).isGenerated());
+        assertEquals(List.of("text", "tags"), fields.stream().map(CopyPlan.FieldPlan::getName).toList());
+        assertEquals(FieldCopyMode.COPY, fields.get(0).getMode());
+        assertEquals(FieldCopyMode.SHALLOW, fields.get(1).getMode());
+        assertEquals(String.class, fields.get(1).getElementType());
+    }
+}